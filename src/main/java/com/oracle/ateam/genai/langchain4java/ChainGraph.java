@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.oracle.ateam.genai.langchain4java.model.RequestChainPayload;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * The `ChainGraph` class infers the dependencies between the chains of a
+ * multiple chains request.
+ *
+ * A chain depends on another chain when its prompt references the other chain's
+ * `{outputVariable}` placeholder. Chains without a path between them are
+ * independent and can run concurrently.
+ */
+class ChainGraph {
+
+    private final List<RequestChainPayload> chains;
+
+    private final List<List<Integer>> dependencies;
+
+    private ChainGraph(List<RequestChainPayload> chains, List<List<Integer>> dependencies) {
+        this.chains = chains;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Builds the dependency graph of the given chains.
+     *
+     * @param chains The chains of a multiple chains request.
+     * @return The dependency graph.
+     */
+    static ChainGraph of(List<RequestChainPayload> chains) {
+        // The first chain declaring an output variable produces it.
+        Map<String, Integer> producers = new HashMap<>();
+        for (int i = 0; i < chains.size(); i++) {
+            String outputVariable = chains.get(i).getOutputVariable();
+            if (StringUtils.isNotBlank(outputVariable)) {
+                producers.putIfAbsent(outputVariable, i);
+            }
+        }
+        List<List<Integer>> dependencies = new ArrayList<>();
+        for (int i = 0; i < chains.size(); i++) {
+            List<Integer> chainDependencies = new ArrayList<>();
+            String prompt = chains.get(i).getPrompt();
+            if (prompt != null) {
+                for (Map.Entry<String, Integer> producer : producers.entrySet()) {
+                    if (producer.getValue() != i && prompt.contains("{" + producer.getKey() + "}")) {
+                        chainDependencies.add(producer.getValue());
+                    }
+                }
+            }
+            dependencies.add(chainDependencies);
+        }
+        return new ChainGraph(chains, dependencies);
+    }
+
+    /**
+     * Returns the indexes of the chains the given chain depends on.
+     *
+     * @param index The index of the chain.
+     * @return The indexes of its dependencies.
+     */
+    List<Integer> dependenciesOf(int index) {
+        return dependencies.get(index);
+    }
+
+    /**
+     * Returns the chain indexes ordered so that every chain comes after its
+     * dependencies. Independent chains keep their request order.
+     *
+     * @return The chain indexes in topological order.
+     * @throws BadRequestException If the chains have a circular dependency.
+     */
+    List<Integer> topologicalOrder() {
+        int[] pending = new int[chains.size()];
+        List<List<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < chains.size(); i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = 0; i < chains.size(); i++) {
+            pending[i] = dependencies.get(i).size();
+            for (int dependency : dependencies.get(i)) {
+                dependents.get(dependency).add(i);
+            }
+        }
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < chains.size(); i++) {
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            order.add(index);
+            for (int dependent : dependents.get(index)) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != chains.size()) {
+            throw new BadRequestException("Circular dependency between chain output variables");
+        }
+        return order;
+    }
+}
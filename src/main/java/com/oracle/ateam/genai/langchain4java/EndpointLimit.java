@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.Timer;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.CompletionCallback;
+import jakarta.ws.rs.core.Response;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The `EndpointLimit` class runs the work of an asynchronous REST endpoint on a
+ * virtual thread and resumes the suspended `AsyncResponse` with its result.
+ *
+ * Each endpoint admits at most `genai.endpoint.<name>.max-concurrency`
+ * requests at a time and rejects the rest with 503, and a request that has not
+ * completed within `genai.endpoint.<name>.timeout-seconds` is answered with
+ * 504. A request that times out or is cancelled has its work interrupted, and
+ * its permit is returned once the work has stopped.
+ */
+@Slf4j
+final class EndpointLimit {
+
+    private static final ExecutorService ENDPOINT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String name;
+
+    private final Semaphore permits;
+
+    private final long timeoutSeconds;
+
+    private EndpointLimit(String name, int maxConcurrency, long timeoutSeconds) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Creates the limit of an endpoint from MicroProfile Config.
+     *
+     * @param name                  The endpoint name used in the configuration
+     *                              keys.
+     * @param defaultMaxConcurrency The concurrency limit when none is configured.
+     * @param defaultTimeoutSeconds The timeout when none is configured.
+     * @return The endpoint limit.
+     */
+    static EndpointLimit fromConfig(String name, int defaultMaxConcurrency, long defaultTimeoutSeconds) {
+        Config config = ConfigProvider.getConfig();
+        return new EndpointLimit(name,
+                config.getOptionalValue("genai.endpoint." + name + ".max-concurrency", Integer.class)
+                        .orElse(defaultMaxConcurrency),
+                config.getOptionalValue("genai.endpoint." + name + ".timeout-seconds", Long.class)
+                        .orElse(defaultTimeoutSeconds));
+    }
+
+    /**
+     * Runs the task on a virtual thread and resumes the response with its result,
+     * its failure, or a timeout. The timer records the time until the response is
+     * resumed.
+     *
+     * @param asyncResponse The suspended response of the request.
+     * @param timer         The timer of the endpoint.
+     * @param task          The endpoint work.
+     */
+    void submit(AsyncResponse asyncResponse, Timer timer, Callable<?> task) {
+        if (!permits.tryAcquire()) {
+            log.warn("Reject {} request, concurrency limit reached", name);
+            asyncResponse.resume(new ServiceUnavailableException("Too many concurrent " + name + " requests"));
+            return;
+        }
+        Timer.Context timing = timer.time();
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<Void> work = new FutureTask<>(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                asyncResponse.resume(task.call());
+            } catch (Throwable e) {
+                asyncResponse.resume(e);
+            } finally {
+                permits.release();
+            }
+        }, null);
+        asyncResponse.setTimeout(timeoutSeconds, TimeUnit.SECONDS);
+        asyncResponse.setTimeoutHandler(response -> {
+            response.resume(timeoutException());
+            cancel(work, started);
+        });
+        asyncResponse.register((CompletionCallback) failure -> {
+            timing.stop();
+            if (asyncResponse.isCancelled()) {
+                cancel(work, started);
+            }
+        });
+        ENDPOINT_EXECUTOR.execute(work);
+    }
+
+    /**
+     * Applies the limit to a streamed response: the stream is rejected with 503
+     * when the concurrency limit is reached, and fails with 504 and cancels its
+     * source when it has not completed within the timeout.
+     *
+     * @param <T>    The type of the stream elements.
+     * @param stream The endpoint stream.
+     * @return The limited stream.
+     */
+    <T> Flux<T> limit(Flux<T> stream) {
+        return Flux.defer(() -> {
+            if (!permits.tryAcquire()) {
+                log.warn("Reject {} request, concurrency limit reached", name);
+                return Flux.error(new ServiceUnavailableException("Too many concurrent " + name + " requests"));
+            }
+            return stream
+                    .takeUntilOther(Mono.delay(Duration.ofSeconds(timeoutSeconds))
+                            .then(Mono.error(this::timeoutException)))
+                    .doFinally(signal -> permits.release());
+        });
+    }
+
+    // Private method to interrupt the work of a request that timed out or was
+    // cancelled. The permit of work that never started is returned here, the
+    // permit of running work when it stops.
+    private void cancel(FutureTask<Void> work, AtomicBoolean started) {
+        work.cancel(true);
+        if (work.isCancelled() && started.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    private WebApplicationException timeoutException() {
+        return new WebApplicationException(name + " request did not complete within " + timeoutSeconds + "s",
+                Response.Status.GATEWAY_TIMEOUT);
+    }
+}
@@ -7,12 +7,22 @@
 package com.oracle.ateam.genai.langchain4java;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import com.hw.langchain.chains.llm.LLMChain;
 import com.hw.langchain.prompts.prompt.PromptTemplate;
@@ -25,9 +35,13 @@ import com.oracle.ateam.genai.langchain4java.model.RequestChainPayload;
 import com.oracle.ateam.genai.langchain4java.model.RequestMultipleChainsPayload;
 import com.oracle.ateam.genai.langchain4java.model.RequestPayload;
 import com.oracle.ateam.genai.langchain4java.llms.GenAICohereGenerationModel;
+import com.oracle.ateam.genai.langchain4java.llms.GenAISchedulers;
 
 import jakarta.ws.rs.NotSupportedException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 import static com.oracle.ateam.genai.langchain4java.Utils.mergePromptwithToken;
 import static com.oracle.ateam.genai.langchain4java.Utils.replaceTokenWithData;
@@ -56,6 +70,11 @@ public class GenAILangChainService {
         llm, httpRequest, oracleDb
     };
 
+    private static final ExecutorService CHAIN_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final long CHAINS_TIMEOUT_SECONDS = ConfigProvider.getConfig()
+            .getOptionalValue("genai.chains.timeout-seconds", Long.class).orElse(120L);
+
     /**
      * Processes a language completion request based on the provided
      * `RequestPayload`. It invokes the language model and returns
@@ -74,6 +93,22 @@ public class GenAILangChainService {
         return output;
     }
 
+    /**
+     * Processes a language completion request in streaming mode. The language
+     * model is invoked with streaming enabled and the generated tokens are
+     * emitted as they are produced.
+     *
+     * @param payload The request payload containing language generation details.
+     * @return A Flux of generated tokens.
+     * @throws IOException
+     */
+    public Flux<String> getCompletionStream(RequestPayload payload) throws IOException {
+        log.info("Invoke streaming completion API...");
+        ModelParameters llmParameters = payload.getModelParameters();
+        var llm = getLLM(llmParameters);
+        return llm.streamText(payload.getPrompt());
+    }
+
     /**
      * Processes a single chain of requests based on the specified chain type. It
      * delegates the request to the appropriate chain
@@ -136,10 +171,14 @@ public class GenAILangChainService {
 
     /**
      * Processes multiple chains of requests based on the provided
-     * `RequestMultipleChainsPayload`. It iterates through the list
-     * of chains, invoking each chain's processing and using the results to modify
-     * the prompt for the next chain. The final
-     * modified prompt is used to generate language.
+     * `RequestMultipleChainsPayload`. The dependencies between the chains are
+     * inferred from the output variables their prompts reference, and chains
+     * whose dependencies have completed run concurrently on virtual threads. The
+     * output of each chain replaces its placeholder in the prompts of the chains
+     * depending on it and in the final prompt, which is used to generate
+     * language. Chains still running after `genai.chains.timeout-seconds` are
+     * cancelled: their LLM and JDBC calls are interrupted and their HTTP calls
+     * are cancelled.
      *
      * @param payload The request payload containing details of multiple chains to
      *                invoke.
@@ -147,27 +186,35 @@ public class GenAILangChainService {
      * @throws IOException
      */
     public String getChains(RequestMultipleChainsPayload payload) throws IOException {
-        String chainResult = null;
         ModelParameters llmParameters = payload.getModelParameters();
         String prompt = payload.getPrompt();
         List<RequestChainPayload> chains = payload.getChains();
         for (RequestChainPayload chain : chains) {
-            String chainType = chain.getChainType();
-            if (!contains(ChainType.class, chainType)) {
+            if (!contains(ChainType.class, chain.getChainType())) {
                 throw new NotSupportedException();
             }
-            switch (chainType.toLowerCase()) {
-                case "llm":
-                    chainResult = invokeLLMChain(chain);
-                    break;
-                case "httprequest":
-                    chainResult = invokeHTTPRequestChain(chain);
-                    break;
-                case "oracledb":
-                    chainResult = invokeOracelDatabaseChain(chain);
-                    break;
-            }
-            prompt = replaceTokenWithData(chainResult, chain.getOutputVariable(), prompt);
+        }
+        ChainGraph graph = ChainGraph.of(chains);
+        List<CompletableFuture<String>> results = new ArrayList<>(Collections.nCopies(chains.size(), null));
+        RunningChains running = new RunningChains();
+        for (int index : graph.topologicalOrder()) {
+            RequestChainPayload chain = chains.get(index);
+            List<Integer> dependencies = graph.dependenciesOf(index);
+            CompletableFuture<?>[] dependencyResults = dependencies.stream()
+                    .map(results::get)
+                    .toArray(CompletableFuture[]::new);
+            results.set(index, CompletableFuture.allOf(dependencyResults).thenComposeAsync(ignored -> {
+                String chainPrompt = chain.getPrompt();
+                for (int dependency : dependencies) {
+                    chainPrompt = replaceTokenWithData(results.get(dependency).join(),
+                            chains.get(dependency).getOutputVariable(), chainPrompt);
+                }
+                return running.add(invokeChainAsync(withPrompt(chain, chainPrompt)));
+            }, CHAIN_EXECUTOR));
+        }
+        awaitChains(results, running);
+        for (int i = 0; i < chains.size(); i++) {
+            prompt = replaceTokenWithData(results.get(i).join(), chains.get(i).getOutputVariable(), prompt);
         }
         RequestPayload reqPayload = new RequestPayload();
         reqPayload.setModelParameters(llmParameters);
@@ -175,6 +222,105 @@ public class GenAILangChainService {
         return invokeLLM(reqPayload);
     }
 
+    // Private method to copy a chain with the prompt its dependencies were
+    // substituted into, leaving the chain of the request unchanged.
+    private static RequestChainPayload withPrompt(RequestChainPayload chain, String prompt) {
+        RequestChainPayload copy = new RequestChainPayload();
+        copy.setChainType(chain.getChainType());
+        copy.setPrompt(prompt);
+        copy.setModelParameters(chain.getModelParameters());
+        copy.setHttpRequest(chain.getHttpRequest());
+        copy.setDbRequest(chain.getDbRequest());
+        copy.setProperties(chain.getProperties());
+        copy.setOutputVariable(chain.getOutputVariable());
+        return copy;
+    }
+
+    // Private method to wait for every chain within the chains deadline, and to
+    // cancel the running chains when it is missed.
+    private void awaitChains(List<CompletableFuture<String>> results, RunningChains running) throws IOException {
+        CompletableFuture<Void> allChains = CompletableFuture.allOf(results.toArray(CompletableFuture[]::new));
+        try {
+            allChains.get(CHAINS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            running.cancelAll();
+            results.forEach(result -> result.cancel(true));
+            throw new WebApplicationException("Chains did not complete within " + CHAINS_TIMEOUT_SECONDS + "s",
+                    Response.Status.GATEWAY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.cancelAll();
+            results.forEach(result -> result.cancel(true));
+            throw new IOException("Interrupted while waiting for chains", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // Private method to invoke a chain according to its chain type. HTTP request
+    // chains complete asynchronously instead of holding a thread during the call.
+    // Cancelling the returned future cancels the chain.
+    private CompletableFuture<String> invokeChainAsync(RequestChainPayload chain) {
+        if (chain.getChainType().equalsIgnoreCase("httprequest")) {
+            return invokeHTTPRequestChainAsync(chain);
+        }
+        return GenAISchedulers.supplyInterruptibly(() -> {
+            try {
+                return invokeChain(chain);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * The chains started by a call to `getChains`, cancelled together when the
+     * chains miss their deadline. A chain started after the cancellation is
+     * cancelled at once.
+     */
+    private static final class RunningChains {
+        private final List<CompletableFuture<String>> chains = new ArrayList<>();
+        private boolean cancelled;
+
+        synchronized CompletableFuture<String> add(CompletableFuture<String> chain) {
+            if (cancelled) {
+                chain.cancel(true);
+            } else {
+                chains.add(chain);
+            }
+            return chain;
+        }
+
+        synchronized void cancelAll() {
+            cancelled = true;
+            chains.forEach(chain -> chain.cancel(true));
+        }
+    }
+
+    // Private method to invoke a chain according to its chain type.
+    private String invokeChain(RequestChainPayload chain) throws IOException {
+        String chainResult = null;
+        switch (chain.getChainType().toLowerCase()) {
+            case "llm":
+                chainResult = invokeLLMChain(chain);
+                break;
+            case "httprequest":
+                chainResult = invokeHTTPRequestChain(chain);
+                break;
+            case "oracledb":
+                chainResult = invokeOracelDatabaseChain(chain);
+                break;
+        }
+        return chainResult;
+    }
+
     /**
      * Invokes the Language Model (LLM) based on the provided `RequestPayload`. It
      * configures the LLM with the specified parameters
@@ -232,8 +378,21 @@ public class GenAILangChainService {
      * @return The response from the HTTP request chain.
      */
     private String invokeHTTPRequestChain(RequestChainPayload chain) {
+        return invokeHTTPRequestChainAsync(chain).join();
+    }
+
+    /**
+     * Invokes a single chain of requests with the `httpRequest` type
+     * asynchronously. The HTTP request is sent without blocking and the response
+     * is processed by the LLM when it arrives.
+     *
+     * @param chain The request payload containing chain processing details.
+     * @return A future completed with the response from the HTTP request chain,
+     *         or with null if the chain failed, which cancels the chain when
+     *         cancelled.
+     */
+    private CompletableFuture<String> invokeHTTPRequestChainAsync(RequestChainPayload chain) {
         log.info("Invoke HTTP Request chain ...");
-        String response = null;
         ModelParameters chainLLMParameters = chain.getModelParameters();
         try {
             var llm = getLLM(chainLLMParameters);
@@ -246,17 +405,33 @@ public class GenAILangChainService {
             }
             String prompt = mergePromptwithToken(chain.getProperties(), chain.getPrompt());
             Map<String, String> headers = new HashMap<String, String>();
-            headers.put("Authorization", authToken);
-            headers.put("Content-Type", chain.getHttpRequest().getContentType());
-
-            var httpChain = HttpRequestChain.usingApiURL(llm, chain.getHttpRequest().getApiURL(), headers,
-                    HTTPREQUEST_RESPONSE_PROMPT);
-            response = httpChain.run(prompt);
+            if (StringUtils.isNotBlank(authToken)) {
+                headers.put("Authorization", authToken);
+            }
+            if (StringUtils.isNotBlank(chain.getHttpRequest().getContentType())) {
+                headers.put("Content-Type", chain.getHttpRequest().getContentType());
+            }
 
+            List<String> apiURLs = chain.getHttpRequest().getApiURLs();
+            var httpChain = apiURLs != null && !apiURLs.isEmpty()
+                    ? HttpRequestChain.usingApiURLs(llm, apiURLs, headers, HTTPREQUEST_RESPONSE_PROMPT)
+                    : HttpRequestChain.usingApiURL(llm, chain.getHttpRequest().getApiURL(), headers,
+                            HTTPREQUEST_RESPONSE_PROMPT);
+            CompletableFuture<String> answer = httpChain.runAsync(prompt);
+            CompletableFuture<String> result = answer.exceptionally(e -> {
+                log.error("HTTP Request chain failed", e);
+                return null;
+            });
+            result.whenComplete((ignored, error) -> {
+                if (result.isCancelled()) {
+                    answer.cancel(true);
+                }
+            });
+            return result;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("HTTP Request chain failed", e);
+            return CompletableFuture.completedFuture(null);
         }
-        return response;
     }
 
     /**
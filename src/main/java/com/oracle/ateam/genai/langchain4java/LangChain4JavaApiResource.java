@@ -8,15 +8,16 @@
 package com.oracle.ateam.genai.langchain4java;
 
 import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Timer;
 import org.eclipse.microprofile.metrics.annotation.Counted;
-import org.eclipse.microprofile.metrics.annotation.Timed;
+import org.eclipse.microprofile.metrics.annotation.Metric;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import com.oracle.ateam.genai.langchain4java.model.DefaultResponse;
-import com.oracle.ateam.genai.langchain4java.model.ModelParameters;
 import com.oracle.ateam.genai.langchain4java.model.RequestChainPayload;
+import com.oracle.ateam.genai.langchain4java.model.RequestMultipleChainsPayload;
 import com.oracle.ateam.genai.langchain4java.model.RequestPayload;
 import jakarta.ws.rs.PathParam;
 
@@ -26,7 +27,12 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
@@ -42,10 +48,18 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
  * Run Completion:
  * curl -d <Your Json Input> -X POST
  * http://localhost:8080/llm/rest/v1/completion
+ *
+ * Run Completion with token streaming (server-sent events):
+ * curl -N -d <Your Json Input> -X POST
+ * http://localhost:8080/llm/rest/v1/completion/stream
  * 
  * Run Chain (llm, httpRequest, oracleDb)
  * curl -d <Your Json Input> -X POST
  * http://localhost:8080/llm/rest/v1/chain/{chainType}
+ *
+ * Run Multiple Chains
+ * curl -d <Your Json Input> -X POST
+ * http://localhost:8080/llm/rest/v1/chains
  * 
  * 
  * The message is returned as a JSON object.
@@ -58,9 +72,19 @@ public class LangChain4JavaApiResource {
     private static final String PERSONALIZED_GETS_COUNTER_DESCRIPTION = "Counts personalized GET operations";
     private static final String GETS_TIMER_NAME = "allGets";
     private static final String GETS_TIMER_DESCRIPTION = "Tracks all GET operations";
+    private static final EndpointLimit COMPLETION_LIMIT = EndpointLimit.fromConfig("completion", 64, 120);
+    private static final EndpointLimit COMPLETION_STREAM_LIMIT = EndpointLimit.fromConfig("completion-stream", 64, 300);
+    private static final EndpointLimit CHAIN_LIMIT = EndpointLimit.fromConfig("chain", 32, 180);
+    private static final EndpointLimit CHAINS_LIMIT = EndpointLimit.fromConfig("chains", 16, 300);
     private final String txt;
     private GenAILangChainService service = new GenAILangChainService();
 
+    // Records the time until the asynchronous responses are resumed, not the
+    // time to submit them.
+    @Inject
+    @Metric(name = GETS_TIMER_NAME, description = GETS_TIMER_DESCRIPTION, unit = MetricUnits.SECONDS, absolute = true)
+    Timer timer;
+
     @Inject
     public LangChain4JavaApiResource(@ConfigProperty(name = "app.version") String txt) {
         this.txt = txt;
@@ -82,49 +106,101 @@ public class LangChain4JavaApiResource {
 
     /**
      * Processes a language completion request based on the provided
-     * `RequestPayload`. It invokes the language model and returns
-     * the generated language completion.
+     * `RequestPayload`. It invokes the language model on a virtual thread and
+     * resumes the response with the generated language completion.
      *
-     * @param payload The request payload containing language generation details.
-     * @return The generated language completion.
-     * @throws IOException
+     * @param payload       The request payload containing language generation
+     *                      details.
+     * @param asyncResponse The suspended response resumed with the generated
+     *                      language completion.
      */
     @Path("/completion")
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Counted(name = PERSONALIZED_GETS_COUNTER_NAME, absolute = true, description = PERSONALIZED_GETS_COUNTER_DESCRIPTION)
-    @Timed(name = GETS_TIMER_NAME, description = GETS_TIMER_DESCRIPTION, unit = MetricUnits.SECONDS, absolute = true)
     @RequestBody(name = "requestPayload", required = true, content = @Content(mediaType = "application/json", schema = @Schema(type = SchemaType.OBJECT, requiredProperties = {
             "modelParameters", "prompt" })))
-    public String completion(RequestPayload payload) throws IOException {
+    public void completion(RequestPayload payload, @Suspended AsyncResponse asyncResponse) {
         log.info("Invoke completion API...");
-        ModelParameters llmParameters = payload.getModelParameters();
-        var llm = service.getLLM(llmParameters);
-        return llm.predict(payload.getPrompt());
+        COMPLETION_LIMIT.submit(asyncResponse, timer, () -> service.getCompletion(payload));
+    }
+
+    /**
+     * Processes a language completion request in streaming mode. The generated
+     * tokens are sent to the client as server-sent events as soon as they are
+     * produced, and the event stream is closed when the generation completes.
+     * The stream is subject to the `completion-stream` endpoint limit.
+     *
+     * @param payload   The request payload containing language generation details.
+     * @param eventSink The sink the token events are sent to.
+     * @param sse       The SSE support used to build events.
+     * @throws IOException
+     */
+    @Path("/completion/stream")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Counted(name = PERSONALIZED_GETS_COUNTER_NAME, absolute = true, description = PERSONALIZED_GETS_COUNTER_DESCRIPTION)
+    @RequestBody(name = "requestPayload", required = true, content = @Content(mediaType = "application/json", schema = @Schema(type = SchemaType.OBJECT, requiredProperties = {
+            "modelParameters", "prompt" })))
+    public void streamCompletion(RequestPayload payload, @Context SseEventSink eventSink, @Context Sse sse)
+            throws IOException {
+        log.info("Invoke streaming completion API...");
+        COMPLETION_STREAM_LIMIT.limit(service.getCompletionStream(payload))
+                .takeWhile(token -> !eventSink.isClosed())
+                .subscribe(token -> eventSink.send(sse.newEvent(token)),
+                        error -> {
+                            log.error("Streaming completion failed: {}", error.toString());
+                            eventSink.send(sse.newEvent("error", error.getMessage()));
+                            eventSink.close();
+                        },
+                        eventSink::close);
     }
 
     /**
      * Processes single chains of requests based on the specified chain type by
      * invoking the `getChain` method of the
-     * `GenAILangChaineService`.
+     * `GenAILangChaineService` on a virtual thread.
      *
-     * @param chainType The type of the chain to process.
-     * @param payload   The request payload containing chain processing details.
-     * @return The response from the `getChain` method.
-     * @throws IOException
+     * @param chainType     The type of the chain to process.
+     * @param payload       The request payload containing chain processing
+     *                      details.
+     * @param asyncResponse The suspended response resumed with the response from
+     *                      the `getChain` method.
      */
     @Path("/chain/{chainType}")
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Counted(name = PERSONALIZED_GETS_COUNTER_NAME, absolute = true, description = PERSONALIZED_GETS_COUNTER_DESCRIPTION)
-    @Timed(name = GETS_TIMER_NAME, description = GETS_TIMER_DESCRIPTION, unit = MetricUnits.SECONDS, absolute = true)
     @RequestBody(name = "requestPayload", required = true, content = @Content(mediaType = "application/json", schema = @Schema(type = SchemaType.OBJECT, requiredProperties = {
             "modelParameters", "prompt" })))
-    public String processChain(@PathParam("chainType") String chainType, RequestChainPayload payload)
-            throws IOException {
+    public void processChain(@PathParam("chainType") String chainType, RequestChainPayload payload,
+            @Suspended AsyncResponse asyncResponse) {
         log.info("Process single chain ...");
-        return service.getChain(chainType, payload);
+        CHAIN_LIMIT.submit(asyncResponse, timer, () -> service.getChain(chainType, payload));
+    }
+
+    /**
+     * Processes multiple chains of requests by invoking the `getChains` method of
+     * the `GenAILangChaineService` on a virtual thread. Independent chains run
+     * concurrently and their outputs are merged into the final prompt.
+     *
+     * @param payload       The request payload containing details of multiple
+     *                      chains to invoke.
+     * @param asyncResponse The suspended response resumed with the response from
+     *                      the `getChains` method.
+     */
+    @Path("/chains")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Counted(name = PERSONALIZED_GETS_COUNTER_NAME, absolute = true, description = PERSONALIZED_GETS_COUNTER_DESCRIPTION)
+    @RequestBody(name = "requestPayload", required = true, content = @Content(mediaType = "application/json", schema = @Schema(type = SchemaType.OBJECT, requiredProperties = {
+            "modelParameters", "prompt", "chains" })))
+    public void processChains(RequestMultipleChainsPayload payload, @Suspended AsyncResponse asyncResponse) {
+        log.info("Process multiple chains ...");
+        CHAINS_LIMIT.submit(asyncResponse, timer, () -> service.getChains(payload));
     }
 }
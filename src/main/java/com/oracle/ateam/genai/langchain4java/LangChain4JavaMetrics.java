@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java;
+
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+import com.oracle.ateam.genai.langchain4java.chain.http.requests.HttpClients;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.GeneratedSqlCache;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleDataSources;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.PromptBudgetPlanner;
+import com.oracle.ateam.genai.langchain4java.llms.cache.ExactMatchResponseCache;
+import com.oracle.ateam.genai.langchain4java.llms.cache.SemanticResponseCache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `LangChain4JavaMetrics` class publishes the internal statistics of the
+ * LangChain for Java components, such as caches and pools, as MicroProfile
+ * application metrics next to the REST metrics of `LangChain4JavaApiResource`.
+ *
+ * The gauges are registered once when the application starts and read the
+ * component statistics on every scrape. The prompt budget usage is recorded per
+ * plan in histograms.
+ */
+@Slf4j
+@ApplicationScoped
+public class LangChain4JavaMetrics {
+
+    @Inject
+    MetricRegistry registry;
+
+    /**
+     * Registers the component gauges when the application scope is initialized.
+     *
+     * @param event The application scope initialization event.
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        log.info("Register LangChain for Java metrics...");
+        registerExactMatchCacheMetrics(ExactMatchResponseCache.getInstance());
+        registerSemanticCacheMetrics(SemanticResponseCache.getInstance());
+        registerConnectionPoolMetrics(OracleDataSources.getInstance());
+        registerSchemaCacheMetrics(OracleSchemaCache.getInstance());
+        registerGeneratedSqlCacheMetrics(GeneratedSqlCache.getInstance());
+        registerPromptBudgetMetrics(PromptBudgetPlanner.getInstance());
+        registerHttpClientMetrics(HttpClients.getInstance());
+    }
+
+    // Private method to register the exact-match response cache gauges.
+    private void registerExactMatchCacheMetrics(ExactMatchResponseCache cache) {
+        registry.gauge("genai.cache.exact.hits", cache, c -> c.stats().hitCount());
+        registry.gauge("genai.cache.exact.misses", cache, c -> c.stats().missCount());
+        registry.gauge("genai.cache.exact.hitRate", cache, c -> c.stats().hitRate());
+        registry.gauge("genai.cache.exact.evictions", cache, c -> c.stats().evictionCount());
+        registry.gauge("genai.cache.exact.size", cache, ExactMatchResponseCache::size);
+        registry.gauge("genai.cache.exact.memoryBytes", cache, ExactMatchResponseCache::weightedSize);
+    }
+
+    // Private method to register the semantic response cache gauges.
+    private void registerSemanticCacheMetrics(SemanticResponseCache cache) {
+        registry.gauge("genai.cache.semantic.hits", cache, SemanticResponseCache::hitCount);
+        registry.gauge("genai.cache.semantic.misses", cache, SemanticResponseCache::missCount);
+        registry.gauge("genai.cache.semantic.hitRatio", cache, SemanticResponseCache::hitRatio);
+        registry.gauge("genai.cache.semantic.size", cache, SemanticResponseCache::size);
+    }
+
+    // Private method to register the Oracle connection pool gauges.
+    private void registerConnectionPoolMetrics(OracleDataSources dataSources) {
+        registry.gauge("genai.db.pool.count", dataSources, OracleDataSources::size);
+        registry.gauge("genai.db.pool.borrowed", dataSources, OracleDataSources::borrowedConnections);
+        registry.gauge("genai.db.pool.available", dataSources, OracleDataSources::availableConnections);
+    }
+
+    // Private method to register the Oracle schema metadata cache gauges.
+    private void registerSchemaCacheMetrics(OracleSchemaCache cache) {
+        registry.gauge("genai.db.schema-cache.hits", cache, c -> c.stats().hitCount());
+        registry.gauge("genai.db.schema-cache.misses", cache, c -> c.stats().missCount());
+        registry.gauge("genai.db.schema-cache.size", cache, OracleSchemaCache::size);
+        registry.gauge("genai.db.schema-cache.refreshes", cache, OracleSchemaCache::refreshCount);
+        registry.gauge("genai.db.schema-cache.ddlInvalidations", cache, OracleSchemaCache::ddlInvalidationCount);
+    }
+
+    // Private method to register the generated-SQL cache gauges.
+    private void registerGeneratedSqlCacheMetrics(GeneratedSqlCache cache) {
+        registry.gauge("genai.db.sql-cache.hits", cache, c -> c.stats().hitCount());
+        registry.gauge("genai.db.sql-cache.misses", cache, c -> c.stats().missCount());
+        registry.gauge("genai.db.sql-cache.size", cache, GeneratedSqlCache::size);
+    }
+
+    // Private method to register the SQL prompt token budget gauges and usage
+    // histograms.
+    private void registerPromptBudgetMetrics(PromptBudgetPlanner planner) {
+        registry.gauge("genai.db.prompt-budget.maxTokens", planner, PromptBudgetPlanner::getMaxTokens);
+        registry.gauge("genai.db.prompt-budget.plans", planner, PromptBudgetPlanner::planCount);
+        Histogram usedTokens = registry.histogram("genai.db.prompt-budget.usedTokens");
+        Histogram usagePercent = registry.histogram("genai.db.prompt-budget.usagePercent");
+        planner.setPlanListener(plan -> {
+            usedTokens.update(plan.estimatedTokens());
+            if (planner.getMaxTokens() > 0) {
+                usagePercent.update(100L * plan.estimatedTokens() / planner.getMaxTokens());
+            }
+        });
+        registry.gauge("genai.db.prompt-budget.droppedTables", planner, PromptBudgetPlanner::droppedTableCount);
+        registry.gauge("genai.db.prompt-budget.droppedSampleBlocks", planner,
+                PromptBudgetPlanner::droppedSampleBlockCount);
+    }
+
+    // Private method to register the shared HTTP client gauges.
+    private void registerHttpClientMetrics(HttpClients clients) {
+        registry.gauge("genai.http.client.connections", clients, HttpClients::connectionCount);
+        registry.gauge("genai.http.client.idleConnections", clients, HttpClients::idleConnectionCount);
+        registry.gauge("genai.http.client.newConnections", clients, HttpClients::newConnectionCount);
+        registry.gauge("genai.http.client.reusedConnections", clients, HttpClients::reusedConnectionCount);
+        registry.gauge("genai.http.client.runningCalls", clients, HttpClients::runningCallCount);
+        registry.gauge("genai.http.client.queuedCalls", clients, HttpClients::queuedCallCount);
+        registry.gauge("genai.http.cache.requests", clients, HttpClients::cacheRequestCount);
+        registry.gauge("genai.http.cache.hits", clients, HttpClients::cacheHitCount);
+        registry.gauge("genai.http.cache.conditionalHits", clients, HttpClients::conditionalCacheHitCount);
+        registry.gauge("genai.http.cache.networkRequests", clients, HttpClients::cacheNetworkCount);
+        registry.gauge("genai.http.cache.sizeBytes", clients, HttpClients::cacheSizeBytes);
+    }
+}
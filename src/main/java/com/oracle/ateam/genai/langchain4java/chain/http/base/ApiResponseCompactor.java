@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.http.base;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * The `ApiResponseCompactor` class trims an API response down to the part
+ * relevant to a question before it is put into the `{api_response}` of the
+ * answer prompt, so that the prompt stays within
+ * `genai.http.response.max-tokens`, estimated as four characters per token.
+ *
+ * A JSON response keeps only the fields whose name or value matches a term of
+ * the question, with the scalar fields next to them for context, and arrays
+ * keep at most `genai.http.response.max-array-items` items. When nothing
+ * matches, the whole document is kept with its arrays cut. The JSON is written
+ * without whitespace. Any other response, or a JSON document cut by the size
+ * limit of the HTTP client, is cut as text. A marker tells the LLM when the
+ * response was cut.
+ *
+ * Example usage:
+ * ```java
+ * String apiResponse = ApiResponseCompactor.getInstance().compact(body, "What is the stock in Frankfurt?");
+ * ```
+ */
+public final class ApiResponseCompactor {
+
+    private static final ApiResponseCompactor INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private static final String TRUNCATION_MARKER = "\n... [response truncated]";
+
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "what", "which", "who", "how", "are",
+            "is", "was", "were", "with", "from", "this", "that", "there", "does", "many", "much", "all", "any", "can",
+            "you", "give", "show", "list", "tell", "about", "into", "per", "today", "now");
+
+    private final int maxTokens;
+
+    private final int maxArrayItems;
+
+    /**
+     * Creates a new compactor.
+     *
+     * @param maxTokens     The maximum number of tokens of a compacted response.
+     * @param maxArrayItems The maximum number of items kept per JSON array.
+     */
+    public ApiResponseCompactor(int maxTokens, int maxArrayItems) {
+        this.maxTokens = maxTokens;
+        this.maxArrayItems = maxArrayItems;
+    }
+
+    /**
+     * Returns the compactor shared by the application, configured from
+     * MicroProfile Config.
+     *
+     * @return The shared `ApiResponseCompactor`.
+     */
+    public static ApiResponseCompactor getInstance() {
+        return INSTANCE;
+    }
+
+    private static ApiResponseCompactor fromConfig(Config config) {
+        int maxTokens = config.getOptionalValue("genai.http.response.max-tokens", Integer.class).orElse(4096);
+        int maxArrayItems = config.getOptionalValue("genai.http.response.max-array-items", Integer.class)
+                .orElse(50);
+        return new ApiResponseCompactor(maxTokens, maxArrayItems);
+    }
+
+    /**
+     * Compacts an API response for a question.
+     *
+     * @param response The API response.
+     * @param question The question the response should answer.
+     * @return The compacted response, or null when the response is null.
+     */
+    public String compact(String response, String question) {
+        return compact(response, question, maxTokens);
+    }
+
+    /**
+     * Compacts an API response for a question within the given number of tokens,
+     * for example a share of the budget when several responses are merged.
+     *
+     * @param response  The API response.
+     * @param question  The question the response should answer.
+     * @param maxTokens The maximum number of tokens of the compacted response.
+     * @return The compacted response, or null when the response is null.
+     */
+    public String compact(String response, String question, int maxTokens) {
+        if (response == null) {
+            return null;
+        }
+        String text = response.strip();
+        if (text.startsWith("{") || text.startsWith("[")) {
+            try {
+                JsonElement document = JsonParser.parseString(text);
+                JsonElement relevant = select(document, terms(question));
+                text = (relevant != null ? relevant : select(document, Set.of())).toString();
+            } catch (JsonParseException e) {
+                // Not JSON, or cut by the size limit: trimmed as text.
+            }
+        }
+        int maxChars = maxTokens * CHARS_PER_TOKEN;
+        return text.length() > maxChars ? text.substring(0, maxChars) + TRUNCATION_MARKER : text;
+    }
+
+    /**
+     * Returns the maximum number of tokens of a compacted response.
+     *
+     * @return The configured maximum number of tokens.
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    // Private method to keep the parts of a JSON element that match one of the
+    // terms. Without terms, every part is kept and only arrays are cut. Returns
+    // null when nothing matches.
+    private JsonElement select(JsonElement element, Set<String> terms) {
+        if (element.isJsonObject()) {
+            Map<String, JsonElement> matched = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                JsonElement value = terms.isEmpty() || matches(field.getKey(), terms)
+                        ? select(field.getValue(), Set.of())
+                        : select(field.getValue(), terms);
+                if (value != null) {
+                    matched.put(field.getKey(), value);
+                }
+            }
+            if (matched.isEmpty()) {
+                return null;
+            }
+            // Keep the scalar fields next to a match, such as an id or a name.
+            JsonObject selected = new JsonObject();
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                JsonElement value = matched.get(field.getKey());
+                if (value != null) {
+                    selected.add(field.getKey(), value);
+                } else if (field.getValue().isJsonPrimitive()) {
+                    selected.add(field.getKey(), field.getValue());
+                }
+            }
+            return selected;
+        }
+        if (element.isJsonArray()) {
+            JsonArray selected = new JsonArray();
+            int matches = 0;
+            for (JsonElement item : element.getAsJsonArray()) {
+                JsonElement value = select(item, terms);
+                if (value != null && ++matches <= maxArrayItems) {
+                    selected.add(value);
+                }
+            }
+            if (matches > maxArrayItems) {
+                selected.add("... " + (matches - maxArrayItems) + " more items");
+            }
+            return selected.size() > 0 || terms.isEmpty() ? selected : null;
+        }
+        if (terms.isEmpty() || element.isJsonPrimitive() && matches(element.getAsString(), terms)) {
+            return element;
+        }
+        return null;
+    }
+
+    private static boolean matches(String text, Set<String> terms) {
+        String normalized = text.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (normalized.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Private method to split a question into lower-case terms of three letters
+    // or more, with a crude plural stemming.
+    private static Set<String> terms(String question) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : String.valueOf(question).toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (term.length() > 2 && !STOP_WORDS.contains(term)) {
+                terms.add(term.length() > 3 && term.endsWith("s") ? term.substring(0, term.length() - 1) : term);
+            }
+        }
+        return terms;
+    }
+}
@@ -8,14 +8,22 @@ package com.oracle.ateam.genai.langchain4java.chain.http.base;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import com.hw.langchain.base.language.BaseLanguageModel;
 import com.hw.langchain.chains.base.Chain;
 import com.hw.langchain.chains.llm.LLMChain;
 import com.hw.langchain.prompts.base.BasePromptTemplate;
 import com.oracle.ateam.genai.langchain4java.chain.http.requests.TextRequestsWrapper;
+import com.oracle.ateam.genai.langchain4java.llms.GenAISchedulers;
 
 import static com.hw.langchain.chains.api.prompt.Prompt.API_RESPONSE_PROMPT;
 
@@ -42,6 +50,15 @@ import static com.hw.langchain.chains.api.prompt.Prompt.API_RESPONSE_PROMPT;
  * headers.
  * - URL parameters are automatically URL-encoded.
  * - Returns the response as an answer to the user's input.
+ * - The API response is compacted to the part relevant to the question by the
+ * `ApiResponseCompactor` before it is given to the LLM.
+ * - `runAsync` sends the request without blocking and runs the answer chain
+ * when the response arrives. Cancelling the returned future cancels the HTTP
+ * calls, or interrupts the answer chain once it runs.
+ * - In fan-out mode, several API URLs are fetched concurrently, each within
+ * `genai.http.fan-out.call-timeout-seconds` and all within
+ * `genai.http.fan-out.deadline-seconds`, and their responses are merged into
+ * one `api_response` for a single answer.
  * 
  * Example usage:
  * ```java
@@ -55,9 +72,19 @@ import static com.hw.langchain.chains.api.prompt.Prompt.API_RESPONSE_PROMPT;
  */
 public class HttpRequestChain extends Chain {
 
+    private static final Duration FAN_OUT_CALL_TIMEOUT = Duration.ofSeconds(ConfigProvider.getConfig()
+            .getOptionalValue("genai.http.fan-out.call-timeout-seconds", Long.class).orElse(10L));
+
+    private static final Duration FAN_OUT_DEADLINE = Duration.ofSeconds(ConfigProvider.getConfig()
+            .getOptionalValue("genai.http.fan-out.deadline-seconds", Long.class).orElse(30L));
+
     private final LLMChain apiAnswerChain;
     private final TextRequestsWrapper requestsWrapper;
     private final String apiUrl;
+    private final List<String> apiUrls;
+    private final Duration callTimeout;
+    private final Duration deadline;
+    private final ApiResponseCompactor responseCompactor = ApiResponseCompactor.getInstance();
     private static final String QUESTION_KEY = "question";
     private static final String OUTPUT_KEY = "output";
 
@@ -73,6 +100,30 @@ public class HttpRequestChain extends Chain {
         this.apiAnswerChain = apiAnswerChain;
         this.requestsWrapper = requestsWrapper;
         this.apiUrl = apiUrl;
+        this.apiUrls = null;
+        this.callTimeout = null;
+        this.deadline = null;
+    }
+
+    /**
+     * Creates a new instance of HttpRequestChain that fans out to several API
+     * endpoints.
+     *
+     * @param apiAnswerChain  The chain used to process the API responses.
+     * @param requestsWrapper A wrapper for making HTTP requests.
+     * @param apiUrls         The URLs of the API endpoints.
+     * @param callTimeout     The timeout of each HTTP call.
+     * @param deadline        The time after which the responses received so far
+     *                        are answered.
+     */
+    public HttpRequestChain(LLMChain apiAnswerChain, TextRequestsWrapper requestsWrapper, List<String> apiUrls,
+            Duration callTimeout, Duration deadline) {
+        this.apiAnswerChain = apiAnswerChain;
+        this.requestsWrapper = requestsWrapper;
+        this.apiUrl = String.join("\n", apiUrls);
+        this.apiUrls = List.copyOf(apiUrls);
+        this.callTimeout = callTimeout;
+        this.deadline = deadline;
     }
 
     /**
@@ -116,12 +167,82 @@ public class HttpRequestChain extends Chain {
      */
     @Override
     public Map<String, String> innerCall(Map<String, Object> inputs) {
-        var question = inputs.get(QUESTION_KEY);
-        apiUrl.strip();
+        var question = String.valueOf(inputs.get(QUESTION_KEY));
+        if (apiUrls != null) {
+            try {
+                return Map.of(OUTPUT_KEY, runAsync(question).join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
         String apiResponse = requestsWrapper.get(apiUrl);
-        String answer = apiAnswerChain
+        return Map.of(OUTPUT_KEY, answer(question, apiResponse));
+    }
+
+    /**
+     * Answers the question asynchronously. The HTTP request is enqueued on the
+     * shared HTTP client, so no thread waits for the response, and the answer
+     * chain runs on a virtual thread once the response has arrived.
+     *
+     * @param question The question to answer from the API response.
+     * @return A future completed with the answer of the chain, which cancels the
+     *         chain when cancelled.
+     */
+    public CompletableFuture<String> runAsync(String question) {
+        if (apiUrls != null) {
+            return GenAISchedulers.thenApplyInterruptibly(fanOut(question),
+                    apiResponse -> predict(question, apiResponse));
+        }
+        return GenAISchedulers.thenApplyInterruptibly(requestsWrapper.getAsync(apiUrl),
+                apiResponse -> answer(question, apiResponse));
+    }
+
+    // Fetches every API URL concurrently and merges the responses received before
+    // the deadline. Each response gets an equal share of the token budget of the
+    // API response. Cancelling the merged future cancels the calls in flight.
+    CompletableFuture<String> fanOut(String question) {
+        List<CompletableFuture<String>> responses = new ArrayList<>(apiUrls.size());
+        for (String url : apiUrls) {
+            responses.add(requestsWrapper.getAsync(url, callTimeout));
+        }
+        int maxTokens = Math.max(1, responseCompactor.getMaxTokens() / apiUrls.size());
+        CompletableFuture<String> merged = CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .completeOnTimeout(null, deadline.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    List<String> sections = new ArrayList<>(apiUrls.size());
+                    for (int i = 0; i < apiUrls.size(); i++) {
+                        CompletableFuture<String> response = responses.get(i);
+                        String body;
+                        if (!response.isDone()) {
+                            response.cancel(true);
+                            body = "[no response within the deadline]";
+                        } else if (response.isCompletedExceptionally()) {
+                            body = "[request failed: " + response.exceptionNow().getMessage() + "]";
+                        } else {
+                            body = responseCompactor.compact(response.join(), question, maxTokens);
+                        }
+                        sections.add("Response from " + apiUrls.get(i) + ":\n" + body);
+                    }
+                    return String.join("\n\n", sections);
+                });
+        merged.whenComplete((result, error) -> {
+            if (merged.isCancelled()) {
+                responses.forEach(response -> response.cancel(true));
+            }
+        });
+        return merged;
+    }
+
+    // Private method to answer the question from the compacted API response.
+    private String answer(String question, String apiResponse) {
+        return predict(question, responseCompactor.compact(apiResponse, question));
+    }
+
+    // Private method to ask the answer chain to summarize the API response.
+    private String predict(String question, String apiResponse) {
+        return apiAnswerChain
                 .predict(Map.of(QUESTION_KEY, question, "api_url", apiUrl, "api_response", apiResponse));
-        return Map.of(OUTPUT_KEY, answer);
     }
 
     /**
@@ -176,6 +297,26 @@ public class HttpRequestChain extends Chain {
         return new HttpRequestChain(getAnswerChain, requestsWrapper, apiURL);
     }
 
+    /**
+     * Creates a new instance of HttpRequestChain that fetches several API URLs
+     * concurrently and answers from their merged responses, with the configured
+     * per-call timeout and deadline.
+     *
+     * @param llm               The base language model for processing responses.
+     * @param apiURLs           The URLs of the API endpoints.
+     * @param headers           A map of custom HTTP headers to include in the
+     *                          requests.
+     * @param apiResponsePrompt The prompt template for processing API responses.
+     * @return A new instance of HttpRequestChain with the specified configuration.
+     */
+    public static HttpRequestChain usingApiURLs(BaseLanguageModel llm, List<String> apiURLs,
+            Map<String, String> headers, BasePromptTemplate apiResponsePrompt) {
+        TextRequestsWrapper requestsWrapper = new TextRequestsWrapper(headers);
+        LLMChain getAnswerChain = new LLMChain(llm, apiResponsePrompt);
+        return new HttpRequestChain(getAnswerChain, requestsWrapper, apiURLs, FAN_OUT_CALL_TIMEOUT,
+                FAN_OUT_DEADLINE);
+    }
+
     /**
      * Builds a URL with URL parameters by appending the parameters to the given API
      * URL.
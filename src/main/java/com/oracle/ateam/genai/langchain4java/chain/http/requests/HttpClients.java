@@ -0,0 +1,397 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.http.requests;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The `HttpClients` class holds the `OkHttpClient` shared by the HTTP request
+ * chains, so that every chain reuses the same dispatcher and keep-alive
+ * connections instead of creating a client per request.
+ *
+ * The connection pool keeps up to `genai.http.client.max-idle-connections`
+ * idle connections for `genai.http.client.keep-alive-seconds`. HTTP/2 is
+ * negotiated when the server supports it, so that concurrent calls to the same
+ * host share one connection. The dispatcher runs asynchronous calls on virtual
+ * threads and limits the calls in flight in total and per host. Headers of a
+ * chain are added by an interceptor of a derived client, which shares the pool
+ * and dispatcher of the shared client.
+ *
+ * Unless `genai.http.cache.enabled` is false, GET responses are kept in an
+ * on-disk cache of at most `genai.http.cache.max-size-mb` that honors
+ * `Cache-Control`. Stale entries with an `ETag` or `Last-Modified` header are
+ * revalidated with a conditional request, so an unchanged resource costs a 304
+ * instead of a full transfer. The cache lives in `genai.http.cache.directory`,
+ * by default `.genai/http-cache` in the user home, readable by its owner only.
+ * Requests that carry credentials, such as an `Authorization`, `Cookie` or API
+ * key header, are cached apart per credential: they are tagged with a SHA-256
+ * hash of their credential headers, which the cached response varies on. The
+ * tag is removed before the request is sent, and the credentials themselves
+ * are never written to disk, so a response is never served to another
+ * caller.
+ *
+ * Example usage:
+ * ```java
+ * OkHttpClient client = HttpClients.getInstance().withHeaders(Map.of("Authorization", token));
+ * ```
+ */
+@Slf4j
+public final class HttpClients {
+
+    private static final HttpClients INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    // Fragments of the names of the request headers that carry credentials.
+    private static final List<String> CREDENTIAL_HEADER_PARTS = List.of("auth", "cookie", "token", "secret",
+            "api-key", "apikey", "session");
+
+    // The request header holding the hash of the credentials of a request, only
+    // known to the cache.
+    private static final String CREDENTIAL_KEY_HEADER = "X-GenAI-Credential-Key";
+
+    private final OkHttpClient client;
+
+    private final LongAdder acquiredConnections = new LongAdder();
+
+    private final LongAdder newConnections = new LongAdder();
+
+    private final LongAdder conditionalCacheHits = new LongAdder();
+
+    private HttpClients(OkHttpClient.Builder builder) {
+        this.client = builder.eventListener(new ConnectionListener()).build();
+    }
+
+    /**
+     * Creates clients with a response cache in the given directory and default
+     * connection settings.
+     *
+     * @param cacheDirectory The directory of the response cache.
+     * @param maxSizeBytes   The maximum size of the response cache.
+     */
+    HttpClients(File cacheDirectory, long maxSizeBytes) {
+        this(withCache(new OkHttpClient.Builder(), cacheDirectory, maxSizeBytes));
+    }
+
+    /**
+     * Returns the clients shared by the application.
+     *
+     * @return The shared `HttpClients`.
+     */
+    public static HttpClients getInstance() {
+        return INSTANCE;
+    }
+
+    private static HttpClients fromConfig(Config config) {
+        int maxIdleConnections = config.getOptionalValue("genai.http.client.max-idle-connections", Integer.class)
+                .orElse(32);
+        long keepAliveSeconds = config.getOptionalValue("genai.http.client.keep-alive-seconds", Long.class)
+                .orElse(300L);
+        Dispatcher dispatcher = new Dispatcher(Executors.newVirtualThreadPerTaskExecutor());
+        dispatcher.setMaxRequests(config.getOptionalValue("genai.http.client.max-requests", Integer.class)
+                .orElse(128));
+        dispatcher.setMaxRequestsPerHost(config
+                .getOptionalValue("genai.http.client.max-requests-per-host", Integer.class).orElse(16));
+        boolean http2 = config.getOptionalValue("genai.http.client.http2-enabled", Boolean.class).orElse(true);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(timeout(config, "connect-timeout-seconds", 10))
+                .readTimeout(timeout(config, "read-timeout-seconds", 30))
+                .writeTimeout(timeout(config, "write-timeout-seconds", 30))
+                .callTimeout(timeout(config, "call-timeout-seconds", 60))
+                .retryOnConnectionFailure(true);
+        if (config.getOptionalValue("genai.http.cache.enabled", Boolean.class).orElse(true)) {
+            File directory = new File(config.getOptionalValue("genai.http.cache.directory", String.class)
+                    .orElse(System.getProperty("user.home") + File.separator + ".genai" + File.separator
+                            + "http-cache"));
+            long maxSizeMb = config.getOptionalValue("genai.http.cache.max-size-mb", Long.class).orElse(64L);
+            log.info("HTTP response cache of {} MB in {}", maxSizeMb, directory);
+            withCache(builder, directory, maxSizeMb * 1024 * 1024);
+        }
+        return new HttpClients(builder);
+    }
+
+    // Private method to add the response cache, in a directory private to the
+    // user, with the responses to credentials kept apart per credential.
+    private static OkHttpClient.Builder withCache(OkHttpClient.Builder builder, File directory, long maxSizeBytes) {
+        createPrivateDirectory(directory.toPath());
+        return builder.cache(new Cache(directory, maxSizeBytes))
+                .addInterceptor(chain -> chain.proceed(withCredentialKey(chain.request())))
+                .addNetworkInterceptor(HttpClients::varyByCredentialKey);
+    }
+
+    private static void createPrivateDirectory(Path directory) {
+        try {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectories(directory,
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to create the HTTP response cache directory {}: {}", directory, e.toString());
+        }
+    }
+
+    // Private method to tag a request that carries credentials with a hash of
+    // them, which the cache varies on instead of the credentials themselves.
+    private static Request withCredentialKey(Request request) {
+        MessageDigest digest = sha256();
+        boolean credentials = false;
+        for (String name : request.headers().names()) {
+            if (isCredentialHeader(name)) {
+                credentials = true;
+                for (String value : request.headers(name)) {
+                    digest.update((name.toLowerCase(Locale.ROOT) + ":" + value + "\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (!credentials) {
+            return request;
+        }
+        return request.newBuilder().header(CREDENTIAL_KEY_HEADER, HexFormat.of().formatHex(digest.digest())).build();
+    }
+
+    // Private method to send a request without its credential key, and to make
+    // the cache store the response by that key. Credential headers are dropped
+    // from the Vary header, which the key covers, so that the cache never writes
+    // their values.
+    private static Response varyByCredentialKey(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header(CREDENTIAL_KEY_HEADER) == null) {
+            return chain.proceed(request);
+        }
+        Response response = chain.proceed(request.newBuilder().removeHeader(CREDENTIAL_KEY_HEADER).build());
+        List<String> vary = new ArrayList<>();
+        for (String value : response.headers("Vary")) {
+            for (String name : value.split(",")) {
+                if (!name.isBlank() && !isCredentialHeader(name.strip())) {
+                    vary.add(name.strip());
+                }
+            }
+        }
+        vary.add(CREDENTIAL_KEY_HEADER);
+        return response.newBuilder().request(request).header("Vary", String.join(", ", vary)).build();
+    }
+
+    private static boolean isCredentialHeader(String name) {
+        String lowerName = name.toLowerCase(Locale.ROOT);
+        return CREDENTIAL_HEADER_PARTS.stream().anyMatch(lowerName::contains);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Duration timeout(Config config, String name, long defaultSeconds) {
+        return Duration.ofSeconds(
+                config.getOptionalValue("genai.http.client." + name, Long.class).orElse(defaultSeconds));
+    }
+
+    /**
+     * Returns the shared client.
+     *
+     * @return The shared `OkHttpClient`.
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns a client that adds the given headers to every request. The client
+     * shares the connection pool and dispatcher of the shared client. Responses
+     * to requests that carry credentials are cached apart per credential.
+     *
+     * @param headers The headers to add, or null for none.
+     * @return The shared client, or a client derived from it.
+     */
+    public OkHttpClient withHeaders(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return client;
+        }
+        Headers requestHeaders = Headers.of(headers);
+        return client.newBuilder()
+                .addInterceptor(chain -> {
+                    Request request = chain.request().newBuilder()
+                            .headers(chain.request().headers().newBuilder().addAll(requestHeaders).build())
+                            .build();
+                    return chain.proceed(client.cache() != null ? withCredentialKey(request) : request);
+                })
+                .build();
+    }
+
+    /**
+     * Returns the number of open connections, idle or in use.
+     *
+     * @return The number of connections in the pool.
+     */
+    public int connectionCount() {
+        return client.connectionPool().connectionCount();
+    }
+
+    /**
+     * Returns the number of idle connections kept alive for reuse.
+     *
+     * @return The number of idle connections.
+     */
+    public int idleConnectionCount() {
+        return client.connectionPool().idleConnectionCount();
+    }
+
+    /**
+     * Returns the number of connections established since startup.
+     *
+     * @return The number of new connections.
+     */
+    public long newConnectionCount() {
+        return newConnections.sum();
+    }
+
+    /**
+     * Returns the number of calls served by an already open connection since
+     * startup.
+     *
+     * @return The number of connection reuses.
+     */
+    public long reusedConnectionCount() {
+        return Math.max(0, acquiredConnections.sum() - newConnections.sum());
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return The number of running calls.
+     */
+    public int runningCallCount() {
+        return client.dispatcher().runningCallsCount();
+    }
+
+    /**
+     * Returns the number of asynchronous calls waiting for a dispatcher slot.
+     *
+     * @return The number of queued calls.
+     */
+    public int queuedCallCount() {
+        return client.dispatcher().queuedCallsCount();
+    }
+
+    /**
+     * Returns the number of GET requests that went through the response cache.
+     *
+     * @return The number of cacheable requests, or 0 when the cache is disabled.
+     */
+    public long cacheRequestCount() {
+        return client.cache() != null ? client.cache().requestCount() : 0;
+    }
+
+    /**
+     * Returns the number of responses served from the cache, with or without a
+     * conditional request.
+     *
+     * @return The number of cache hits, or 0 when the cache is disabled.
+     */
+    public long cacheHitCount() {
+        return client.cache() != null ? client.cache().hitCount() : 0;
+    }
+
+    /**
+     * Returns the number of cached responses that were revalidated by a 304
+     * response to a conditional request.
+     *
+     * @return The number of conditional cache hits.
+     */
+    public long conditionalCacheHitCount() {
+        return conditionalCacheHits.sum();
+    }
+
+    /**
+     * Returns the number of requests sent to the network, including conditional
+     * requests.
+     *
+     * @return The number of network requests, or 0 when the cache is disabled.
+     */
+    public long cacheNetworkCount() {
+        return client.cache() != null ? client.cache().networkCount() : 0;
+    }
+
+    /**
+     * Returns the size of the response cache.
+     *
+     * @return The cache size in bytes, or 0 when the cache is disabled.
+     */
+    public long cacheSizeBytes() {
+        try {
+            return client.cache() != null ? client.cache().size() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Counts the connections acquired by calls and the connections established
+     * for them, and the conditional cache hits.
+     */
+    private final class ConnectionListener extends EventListener {
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            newConnections.increment();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquiredConnections.increment();
+        }
+
+        @Override
+        public void cacheConditionalHit(Call call, Response cachedResponse) {
+            conditionalCacheHits.increment();
+        }
+    }
+}
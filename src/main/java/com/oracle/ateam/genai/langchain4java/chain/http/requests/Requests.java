@@ -11,7 +11,10 @@ import com.google.gson.Gson;
 import okhttp3.*;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The `Requests` class is a wrapper around the HTTP requests library, designed
@@ -34,11 +37,14 @@ import java.util.Map;
  * - Provides methods for common HTTP request types, including GET, POST, PATCH,
  * PUT, and DELETE.
  * - Supports sending data in the request body as JSON.
+ * - Provides asynchronous variants that complete a `CompletableFuture` from
+ * the OkHttp dispatcher instead of blocking the caller.
+ * - Sends the requests through the `OkHttpClient` shared by `HttpClients`, so
+ * that connections are kept alive and reused across requests.
  * 
  */
 public class Requests {
 
-    private final Map<String, String> headers;
     private final OkHttpClient client;
 
     /**
@@ -47,9 +53,18 @@ public class Requests {
      * @param headers A map of HTTP headers to include in the requests.
      */
     public Requests(Map<String, String> headers) {
-        this.headers = headers;
-        this.client = new OkHttpClient();
+        this(HttpClients.getInstance(), headers);
+    }
 
+    /**
+     * Constructs a new `Requests` instance that sends the requests through the
+     * given clients.
+     *
+     * @param clients The clients to send the requests with.
+     * @param headers A map of HTTP headers to include in the requests.
+     */
+    Requests(HttpClients clients, Map<String, String> headers) {
+        this.client = clients.withHeaders(headers);
     }
 
     /**
@@ -64,10 +79,6 @@ public class Requests {
         Request.Builder builder = new Request.Builder()
                 .url(url);
 
-        if (headers != null) {
-            builder.headers(Headers.of(headers));
-        }
-
         builder.method(method, body);
         return builder.build();
     }
@@ -94,17 +105,80 @@ public class Requests {
      * @throws IOException If an error occurs during the request execution.
      */
     public Response sendRequest(String url, String method, Map<String, Object> data) throws IOException {
-        RequestBody body = null;
+        Request request = buildRequest(url, buildBody(data), method);
+        return executeRequest(request);
+    }
 
-        if (data != null) {
-            MediaType mediaType = MediaType.parse("application/json");
-            String jsonBody = new Gson().toJson(data);
-            // body = RequestBody.create(mediaType, jsonBody);
-            body = RequestBody.create(jsonBody, mediaType);
+    /**
+     * Send an HTTP request asynchronously with the specified URL, HTTP method, and
+     * data. The call is enqueued on the dispatcher of the shared client, and
+     * cancelling the returned future cancels the call.
+     *
+     * @param url    The URL of the HTTP request.
+     * @param method The HTTP method (e.g., "GET", "POST", "PUT").
+     * @param data   A map of data to be sent in the request body, can be null for
+     *               methods like GET or DELETE.
+     * @return A future completed with the OkHttp `Response`, which the caller must
+     *         close, or with the `IOException` of the call.
+     */
+    public CompletableFuture<Response> sendRequestAsync(String url, String method, Map<String, Object> data) {
+        return sendRequestAsync(url, method, data, null);
+    }
+
+    /**
+     * Send an HTTP request asynchronously with the specified URL, HTTP method,
+     * data, and timeout for the whole call.
+     *
+     * @param url     The URL of the HTTP request.
+     * @param method  The HTTP method (e.g., "GET", "POST", "PUT").
+     * @param data    A map of data to be sent in the request body, can be null for
+     *                methods like GET or DELETE.
+     * @param timeout The time after which the call is cancelled, or null for the
+     *                call timeout of the shared client.
+     * @return A future completed with the OkHttp `Response`, which the caller must
+     *         close, or with the `IOException` of the call.
+     */
+    public CompletableFuture<Response> sendRequestAsync(String url, String method, Map<String, Object> data,
+            Duration timeout) {
+        Call call = client.newCall(buildRequest(url, buildBody(data), method));
+        if (timeout != null) {
+            call.timeout().timeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
         }
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!future.complete(response)) {
+                    response.close();
+                }
+            }
+        });
+        return future;
+    }
 
-        Request request = buildRequest(url, body, method);
-        return executeRequest(request);
+    /**
+     * Build the JSON request body of the given data.
+     *
+     * @param data A map of data to be sent in the request body, can be null.
+     * @return The request body, or null when there is no data.
+     */
+    private RequestBody buildBody(Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        MediaType mediaType = MediaType.parse("application/json");
+        String jsonBody = new Gson().toJson(data);
+        return RequestBody.create(jsonBody, mediaType);
     }
 
     /**
@@ -118,6 +192,16 @@ public class Requests {
         return sendRequest(url, "GET", null);
     }
 
+    /**
+     * Send a GET request to the specified URL asynchronously.
+     *
+     * @param url The URL of the GET request.
+     * @return A future completed with the OkHttp `Response` of the GET request.
+     */
+    public CompletableFuture<Response> getAsync(String url) {
+        return sendRequestAsync(url, "GET", null);
+    }
+
     /**
      * Send a POST request to the specified URL with the provided data.
      *
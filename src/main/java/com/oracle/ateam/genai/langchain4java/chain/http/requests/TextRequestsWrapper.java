@@ -8,11 +8,20 @@ package com.oracle.ateam.genai.langchain4java.chain.http.requests;
 
 import com.hw.langchain.exception.LangChainException;
 
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The `TextRequestsWrapper` class is a lightweight wrapper around the HTTP
@@ -27,7 +36,12 @@ import java.util.Map;
  * PATCH, PUT, and DELETE.
  * The response body is automatically converted to a string, or `null` is
  * returned if the response
- * body is empty.
+ * body is empty. Asynchronous variants return a `CompletableFuture` completed
+ * when the response arrives, without holding a thread while waiting.
+ *
+ * The response body is streamed into memory up to
+ * `genai.http.response.max-bytes`. The rest of a larger body is never read, so
+ * the memory used per request stays bounded.
  * 
  * Example usage:
  * ```java
@@ -37,12 +51,20 @@ import java.util.Map;
  * ```
  * 
  */
+@Slf4j
 public class TextRequestsWrapper {
 
-    private final Map<String, String> headers;
+    private static final long MAX_BODY_BYTES = ConfigProvider.getConfig()
+            .getOptionalValue("genai.http.response.max-bytes", Long.class).orElse(1048576L);
+
+    private final Requests requests;
 
     public TextRequestsWrapper(Map<String, String> headers) {
-        this.headers = headers;
+        this(new Requests(headers));
+    }
+
+    TextRequestsWrapper(Requests requests) {
+        this.requests = requests;
     }
 
     /**
@@ -57,17 +79,78 @@ public class TextRequestsWrapper {
      */
     private String performRequest(Requests requests, String url, String method, Map<String, Object> data) {
         try (Response response = requests.sendRequest(url, method, data)) {
-            if (response.isSuccessful()) {
-                ResponseBody responseBody = response.body();
-                return responseBody != null ? responseBody.string() : null;
-            } else {
-                throw new LangChainException("Failed with status code %d. messages: %s");
-            }
+            return readBody(response);
         } catch (IOException e) {
             throw new LangChainException("An error occurred while performing " + method + " request.", e);
         }
     }
 
+    /**
+     * Performs an HTTP request asynchronously using the provided `Requests`
+     * instance.
+     *
+     * @param requests The `Requests` instance to use for sending the request
+     * @param url      The URL to send the request to
+     * @param method   The HTTP method to use (e.g., "GET", "POST")
+     * @param data     The data to send in the request body (can be null)
+     * @param timeout  The timeout of the whole call (can be null)
+     * @return A future completed with the response body as a string, or null if
+     *         the response body is empty, or with a `LangChainException`. Cancelling
+     *         it cancels the HTTP call.
+     */
+    private CompletableFuture<String> performRequestAsync(Requests requests, String url, String method,
+            Map<String, Object> data, Duration timeout) {
+        CompletableFuture<Response> sent = requests.sendRequestAsync(url, method, data, timeout);
+        CompletableFuture<String> body = sent.handle((response, error) -> {
+            if (error != null) {
+                throw new LangChainException("An error occurred while performing " + method + " request.", error);
+            }
+            try (response) {
+                return readBody(response);
+            } catch (IOException e) {
+                throw new LangChainException("An error occurred while performing " + method + " request.", e);
+            }
+        });
+        // A dependent stage does not cancel its source, so pass the cancellation on
+        // to the future that cancels the call.
+        body.whenComplete((result, error) -> {
+            if (body.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        return body;
+    }
+
+    /**
+     * Reads the body of a successful response, up to the configured maximum
+     * number of bytes.
+     *
+     * @param response The response to read
+     * @return The response body as a string, or null if the response body is empty
+     * @throws IOException        If the body cannot be read
+     * @throws LangChainException If the response status is not successful
+     */
+    private String readBody(Response response) throws IOException {
+        if (response.isSuccessful()) {
+            ResponseBody responseBody = response.body();
+            if (responseBody == null) {
+                return null;
+            }
+            BufferedSource source = responseBody.source();
+            boolean truncated = source.request(MAX_BODY_BYTES + 1);
+            if (truncated) {
+                log.warn("Response of {} cut at {} bytes", response.request().url(), MAX_BODY_BYTES);
+            }
+            MediaType contentType = responseBody.contentType();
+            Charset charset = contentType != null ? contentType.charset(StandardCharsets.UTF_8)
+                    : StandardCharsets.UTF_8;
+            return source.getBuffer().readString(Math.min(source.getBuffer().size(), MAX_BODY_BYTES), charset);
+        } else {
+            throw new LangChainException(
+                    String.format("Failed with status code %d. messages: %s", response.code(), response.message()));
+        }
+    }
+
     /**
      * Sends a GET request to the specified URL and returns the response body as a
      * string.
@@ -80,6 +163,46 @@ public class TextRequestsWrapper {
         return performRequest(requests, url, "GET", null);
     }
 
+    /**
+     * Sends a GET request to the specified URL asynchronously.
+     *
+     * @param url The URL of the GET request.
+     * @return A future completed with the response body as a string, or null if
+     *         the response body is empty.
+     */
+    public CompletableFuture<String> getAsync(String url) {
+        return getAsync(url, null);
+    }
+
+    /**
+     * Sends a GET request to the specified URL asynchronously, cancelling the call
+     * after the given timeout.
+     *
+     * @param url     The URL of the GET request.
+     * @param timeout The timeout of the whole call, or null for the call timeout of
+     *                the shared client.
+     * @return A future completed with the response body as a string, or null if
+     *         the response body is empty, which cancels the call when cancelled.
+     */
+    public CompletableFuture<String> getAsync(String url, Duration timeout) {
+        Requests requests = getRequests();
+        return performRequestAsync(requests, url, "GET", null, timeout);
+    }
+
+    /**
+     * Sends a POST request to the specified URL with the provided data
+     * asynchronously.
+     *
+     * @param url  The URL of the POST request.
+     * @param data A map of data to be sent in the request body.
+     * @return A future completed with the response body as a string, or null if
+     *         the response body is empty.
+     */
+    public CompletableFuture<String> postAsync(String url, Map<String, Object> data) {
+        Requests requests = getRequests();
+        return performRequestAsync(requests, url, "POST", data, null);
+    }
+
     /**
      * Sends a POST request to the specified URL with the provided data and returns
      * the response body as a string.
@@ -132,12 +255,12 @@ public class TextRequestsWrapper {
     }
 
     /**
-     * Creates a new `Requests` instance with the headers specified during the
-     * `TextRequestsWrapper` construction.
+     * Returns the `Requests` instance created with the headers specified during
+     * the `TextRequestsWrapper` construction.
      *
-     * @return A new `Requests` instance with the provided headers.
+     * @return The `Requests` instance with the provided headers.
      */
     private Requests getRequests() {
-        return new Requests(headers);
+        return requests;
     }
 }
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaKey;
+import com.oracle.ateam.genai.langchain4java.llms.GenAICohereEmbedModel;
+import com.oracle.ateam.genai.langchain4java.llms.Vectors;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `EmbeddingTableSelector` class picks the tables of a schema that are most
+ * relevant to a question by comparing embeddings, instead of listing every
+ * table name to a decider LLM call.
+ *
+ * The DDL and comments of every usable table are embedded once with a
+ * `GenAICohereEmbedModel` and kept in an in-memory index of normalized vectors,
+ * shared by the application and keyed by schema and embedding model. At query
+ * time only the question is embedded and the `topK` tables with the highest
+ * cosine similarity are returned. An index is rebuilt when the usable tables
+ * change, when the DDL fingerprint of the schema kept by `OracleSchemaCache`
+ * changes, or after `genai.db.table-selector.ttl-minutes`.
+ *
+ * Example usage:
+ * ```java
+ * EmbeddingTableSelector selector = new EmbeddingTableSelector(embedModel, 10);
+ * OracleDatabaseSequentialChain chain = OracleDatabaseSequentialChain.fromLLM(llm, database, selector, false);
+ * ```
+ */
+@Slf4j
+public class EmbeddingTableSelector {
+
+    private static final Config CONFIG = ConfigProvider.getConfig();
+
+    private static final Cache<IndexKey, TableIndex> INDEXES = Caffeine.newBuilder()
+            .maximumSize(CONFIG.getOptionalValue("genai.db.table-selector.max-indexes", Long.class).orElse(16L))
+            .expireAfterWrite(Duration.ofMinutes(
+                    CONFIG.getOptionalValue("genai.db.table-selector.ttl-minutes", Long.class).orElse(60L)))
+            .build();
+
+    private static final int MAX_DOCUMENT_CHARS = CONFIG
+            .getOptionalValue("genai.db.table-selector.max-document-chars", Integer.class).orElse(2048);
+
+    private final GenAICohereEmbedModel embedModel;
+
+    private final int topK;
+
+    /**
+     * The identity of a table index.
+     */
+    private record IndexKey(SchemaKey schema, String embedModelId) {
+    }
+
+    /**
+     * The usable tables of a schema, the DDL fingerprint they were embedded at and
+     * the normalized embedding of each one.
+     */
+    private record TableIndex(List<String> tableNames, String ddlFingerprint, float[][] vectors) {
+    }
+
+    /**
+     * Creates a new selector.
+     *
+     * @param embedModel The embedding model used for tables and questions.
+     * @param topK       The number of tables returned for a question.
+     */
+    public EmbeddingTableSelector(GenAICohereEmbedModel embedModel, int topK) {
+        this.embedModel = embedModel;
+        this.topK = topK;
+    }
+
+    /**
+     * Returns the tables most relevant to the question, most similar first.
+     *
+     * @param database The database whose usable tables are ranked.
+     * @param question The natural-language question.
+     * @return At most `topK` table names.
+     */
+    public List<String> selectTables(OracleDatabase database, String question) {
+        List<String> tableNames = database.getUsableTableNames();
+        if (tableNames.size() <= topK) {
+            return tableNames;
+        }
+        IndexKey key = new IndexKey(database.getSchemaKey(), embedModel.getModeId());
+        String ddlFingerprint = database.getDdlFingerprint();
+        TableIndex index = INDEXES.get(key, k -> buildIndex(database, tableNames, ddlFingerprint));
+        if (!index.tableNames().equals(tableNames) || !Objects.equals(index.ddlFingerprint(), ddlFingerprint)) {
+            index = buildIndex(database, tableNames, ddlFingerprint);
+            INDEXES.put(key, index);
+        }
+        float[] query = embed(List.of(question))[0];
+        return topTables(index, query);
+    }
+
+    // Private method to rank the indexed tables by similarity to the question
+    // with a bounded heap.
+    private List<String> topTables(TableIndex index, float[] query) {
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(topK + 1,
+                Map.Entry.comparingByValue());
+        for (int i = 0; i < index.vectors().length; i++) {
+            heap.add(Map.entry(i, Vectors.dot(index.vectors()[i], query)));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder()));
+        return ranked.stream().map(entry -> index.tableNames().get(entry.getKey())).toList();
+    }
+
+    // Private method to embed the DDL and comments of every usable table.
+    private TableIndex buildIndex(OracleDatabase database, List<String> tableNames, String ddlFingerprint) {
+        log.info("Embed {} tables for table selection...", tableNames.size());
+        Map<String, String> tableDdls = database.getTableDdls(tableNames);
+        List<String> documents = new ArrayList<>(tableNames.size());
+        for (String tableName : tableNames) {
+            String document = tableDdls.getOrDefault(tableName, tableName).strip();
+            documents.add(document.length() > MAX_DOCUMENT_CHARS ? document.substring(0, MAX_DOCUMENT_CHARS)
+                    : document);
+        }
+        return new TableIndex(List.copyOf(tableNames), ddlFingerprint, embed(documents));
+    }
+
+    // Private method to embed texts into normalized vectors.
+    @SneakyThrows
+    private float[][] embed(List<String> texts) {
+        float[][] vectors = embedModel.embedAll(texts);
+        for (float[] vector : vectors) {
+            Vectors.normalize(vector);
+        }
+        return vectors;
+    }
+}
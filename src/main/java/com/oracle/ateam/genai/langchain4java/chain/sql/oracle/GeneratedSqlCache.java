@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * The `GeneratedSqlCache` class remembers the SQL query the LLM generated for a
+ * natural-language question, so that `OracleDatabaseChain` skips the
+ * text-to-SQL call when the same question is asked again.
+ *
+ * Entries are keyed by the normalized question, the tables the query may use
+ * and the schema version, made of the schema identity and its DDL fingerprint.
+ * A DDL change changes the fingerprint, so queries generated for an older
+ * schema are never returned; the sample rows and planner output of the
+ * `table_info` are not part of the key. Only `SELECT` and `WITH` queries that
+ * executed successfully are cached. The cache holds at most
+ * `genai.db.sql-cache.max-entries` queries, which expire after
+ * `genai.db.sql-cache.ttl-minutes`.
+ */
+public class GeneratedSqlCache {
+
+    private static final GeneratedSqlCache INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private static final boolean ENABLED = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.sql-cache.enabled", Boolean.class).orElse(true);
+
+    private final Cache<CacheKey, String> cache;
+
+    /**
+     * The compact identity of a question asked against a schema.
+     */
+    record CacheKey(long high, long low) {
+    }
+
+    /**
+     * Creates a new generated-SQL cache.
+     *
+     * @param maxEntries The maximum number of cached queries.
+     * @param ttl        The time after which a query expires.
+     */
+    public GeneratedSqlCache(long maxEntries, Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache shared by the application, configured from MicroProfile
+     * Config.
+     *
+     * @return The shared `GeneratedSqlCache`.
+     */
+    public static GeneratedSqlCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether `OracleDatabaseChain` uses the shared cache, as configured
+     * by `genai.db.sql-cache.enabled`.
+     *
+     * @return True if the generated-SQL cache is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static GeneratedSqlCache fromConfig(Config config) {
+        long maxEntries = config.getOptionalValue("genai.db.sql-cache.max-entries", Long.class).orElse(1024L);
+        long ttlMinutes = config.getOptionalValue("genai.db.sql-cache.ttl-minutes", Long.class).orElse(60L);
+        return new GeneratedSqlCache(maxEntries, Duration.ofMinutes(ttlMinutes));
+    }
+
+    /**
+     * Returns the query generated for the question against the same schema.
+     *
+     * @param question      The natural-language question.
+     * @param tableNames    The tables the query may use, or null for all tables.
+     * @param schemaVersion The schema identity and DDL fingerprint.
+     * @return The cached SQL query, or null when there is none.
+     */
+    public String lookup(String question, List<String> tableNames, String schemaVersion) {
+        return cache.getIfPresent(keyOf(question, tableNames, schemaVersion));
+    }
+
+    /**
+     * Caches a query that executed successfully for the question. Statements
+     * other than `SELECT` and `WITH` queries are not cached.
+     *
+     * @param question      The natural-language question.
+     * @param tableNames    The tables the query may use, or null for all tables.
+     * @param schemaVersion The schema identity and DDL fingerprint.
+     * @param sql           The generated SQL query.
+     */
+    public void update(String question, List<String> tableNames, String schemaVersion, String sql) {
+        if (isQuery(sql)) {
+            cache.put(keyOf(question, tableNames, schemaVersion), sql);
+        }
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the number of cached queries.
+     *
+     * @return The estimated number of entries.
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Removes every cached query.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Normalizes the case, whitespace and trailing punctuation of a question.
+    static String normalize(String question) {
+        String normalized = question == null ? ""
+                : question.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.replaceAll("[\\s?.!;]+$", "");
+    }
+
+    // Returns whether the statement is a query, skipping leading comments and
+    // parentheses.
+    static boolean isQuery(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        String statement = sql.replaceAll("(?s)^(\\s|\\(|--[^\\n]*|/\\*.*?\\*/)+", "");
+        return statement.regionMatches(true, 0, "SELECT", 0, 6) || statement.regionMatches(true, 0, "WITH", 0, 4);
+    }
+
+    // Hashes the question, the sorted table names and the schema version into a
+    // compact key.
+    static CacheKey keyOf(String question, List<String> tableNames, String schemaVersion) {
+        List<String> tables = new ArrayList<>();
+        if (tableNames != null) {
+            tableNames.forEach(name -> tables.add(name.toUpperCase(Locale.ROOT)));
+            Collections.sort(tables);
+        }
+        String canonical = String.join("\u0000",
+                normalize(question),
+                tableNames == null ? "*" : String.join("\u0001", tables),
+                String.valueOf(schemaVersion));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new CacheKey(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
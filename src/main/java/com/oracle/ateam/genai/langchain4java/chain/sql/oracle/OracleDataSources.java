@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import lombok.extern.slf4j.Slf4j;
+import oracle.ucp.admin.UniversalConnectionPoolManagerImpl;
+import oracle.ucp.jdbc.PoolDataSource;
+import oracle.ucp.jdbc.PoolDataSourceFactory;
+
+/**
+ * The `OracleDataSources` class keeps one Oracle Universal Connection Pool
+ * (UCP) per database URL and user so that chains borrow an already
+ * authenticated session instead of opening a new connection per request.
+ *
+ * Pooled connections are validated on borrow and cache up to
+ * `genai.db.pool.max-statements` prepared statements each (implicit statement
+ * caching). Pools that stay idle longer than
+ * `genai.db.pool.idle-timeout-minutes` are evicted, and all remaining pools are
+ * evicted when the JVM shuts down. An evicted pool is destroyed once none of its
+ * connections is borrowed, so that a request still using it is not cut off.
+ *
+ * Pools are keyed by URL, user and a keyed hash of the password, so that the
+ * registry does not keep the password in clear text.
+ *
+ * Example usage:
+ * ```java
+ * DataSource dataSource = OracleDataSources.getInstance()
+ * .getDataSource(url, username, password);
+ * try (Connection connection = dataSource.getConnection()) {
+ * ...
+ * }
+ * ```
+ */
+@Slf4j
+public final class OracleDataSources {
+
+    private static final OracleDataSources INSTANCE = new OracleDataSources(ConfigProvider.getConfig());
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+
+    // The interval between two checks of the borrowed connections of an evicted
+    // pool.
+    private static final long RETIRE_CHECK_SECONDS = 5;
+
+    private static final ScheduledExecutorService RETIRE_EXECUTOR = Executors
+            .newSingleThreadScheduledExecutor(Thread.ofVirtual().name("pool-retire-", 0).factory());
+
+    // The key of the password hashes, random per process.
+    private static final SecretKeySpec PASSWORD_KEY = new SecretKeySpec(randomBytes(32), "HmacSHA256");
+
+    private final Cache<PoolKey, PoolDataSource> pools;
+
+    private final int initialPoolSize;
+
+    private final int minPoolSize;
+
+    private final int maxPoolSize;
+
+    private final int maxStatements;
+
+    private final int connectionWaitTimeoutSeconds;
+
+    private final int inactiveConnectionTimeoutSeconds;
+
+    /**
+     * The identity of a shared pool. The password is kept as a keyed hash.
+     */
+    record PoolKey(String url, String username, String passwordHash) {
+
+        @Override
+        public String toString() {
+            return username + "@" + url;
+        }
+    }
+
+    private OracleDataSources(Config config) {
+        this.initialPoolSize = config.getOptionalValue("genai.db.pool.initial-size", Integer.class).orElse(1);
+        this.minPoolSize = config.getOptionalValue("genai.db.pool.min-size", Integer.class).orElse(1);
+        this.maxPoolSize = config.getOptionalValue("genai.db.pool.max-size", Integer.class).orElse(16);
+        this.maxStatements = config.getOptionalValue("genai.db.pool.max-statements", Integer.class).orElse(64);
+        this.connectionWaitTimeoutSeconds = config
+                .getOptionalValue("genai.db.pool.connection-wait-timeout-seconds", Integer.class).orElse(10);
+        this.inactiveConnectionTimeoutSeconds = config
+                .getOptionalValue("genai.db.pool.inactive-connection-timeout-seconds", Integer.class).orElse(300);
+        long maxPools = config.getOptionalValue("genai.db.pool.max-pools", Long.class).orElse(16L);
+        long idleTimeout = config.getOptionalValue("genai.db.pool.idle-timeout-minutes", Long.class).orElse(30L);
+        this.pools = Caffeine.newBuilder()
+                .maximumSize(maxPools)
+                .expireAfterAccess(Duration.ofMinutes(idleTimeout))
+                .removalListener((PoolKey key, PoolDataSource dataSource, RemovalCause cause) -> {
+                    log.info("Evicting connection pool for {} ({})", key, cause);
+                    retire(key, dataSource);
+                })
+                .build();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "oracle-data-sources-shutdown"));
+    }
+
+    /**
+     * Returns the pools shared by the application.
+     *
+     * @return The shared `OracleDataSources`.
+     */
+    public static OracleDataSources getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the shared pooled data source for the given database and user,
+     * creating it on first use.
+     *
+     * @param url      The JDBC URL of the database.
+     * @param username The database user.
+     * @param password The database user password.
+     * @return The shared `PoolDataSource`.
+     * @throws SQLException If the pool cannot be configured.
+     */
+    public PoolDataSource getDataSource(String url, String username, String password) throws SQLException {
+        try {
+            return pools.get(new PoolKey(url, username, hash(password)), key -> createDataSource(key, password));
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of pools currently held.
+     *
+     * @return The estimated number of pools.
+     */
+    public long size() {
+        return pools.estimatedSize();
+    }
+
+    /**
+     * Returns the number of connections currently borrowed from all pools.
+     *
+     * @return The borrowed connection count.
+     */
+    public int borrowedConnections() {
+        return sum(PoolDataSource::getBorrowedConnectionsCount);
+    }
+
+    /**
+     * Returns the number of idle connections available in all pools.
+     *
+     * @return The available connection count.
+     */
+    public int availableConnections() {
+        return sum(PoolDataSource::getAvailableConnectionsCount);
+    }
+
+    /**
+     * Evicts every shared pool. A pool is destroyed at once, or once its borrowed
+     * connections are returned.
+     */
+    public void close() {
+        pools.invalidateAll();
+        pools.cleanUp();
+    }
+
+    private PoolDataSource createDataSource(PoolKey key, String password) {
+        log.info("Creating connection pool for {}", key);
+        try {
+            PoolDataSource dataSource = PoolDataSourceFactory.getPoolDataSource();
+            dataSource.setConnectionPoolName("langchain4java-" + POOL_SEQUENCE.incrementAndGet());
+            dataSource.setConnectionFactoryClassName("oracle.jdbc.pool.OracleDataSource");
+            dataSource.setURL(key.url());
+            dataSource.setUser(key.username());
+            dataSource.setPassword(password);
+            dataSource.setInitialPoolSize(initialPoolSize);
+            dataSource.setMinPoolSize(minPoolSize);
+            dataSource.setMaxPoolSize(maxPoolSize);
+            dataSource.setMaxStatements(maxStatements);
+            dataSource.setValidateConnectionOnBorrow(true);
+            dataSource.setConnectionWaitTimeout(connectionWaitTimeoutSeconds);
+            dataSource.setInactiveConnectionTimeout(inactiveConnectionTimeoutSeconds);
+            return dataSource;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create connection pool for " + key, e);
+        }
+    }
+
+    // Private method to add up a pool statistic over all pools, skipping pools
+    // that are not started yet.
+    private int sum(PoolStatistic statistic) {
+        ToIntFunction<PoolDataSource> safe = dataSource -> {
+            try {
+                return statistic.get(dataSource);
+            } catch (SQLException e) {
+                return 0;
+            }
+        };
+        return pools.asMap().values().stream().mapToInt(safe).sum();
+    }
+
+    @FunctionalInterface
+    private interface PoolStatistic {
+        int get(PoolDataSource dataSource) throws SQLException;
+    }
+
+    // Private method to destroy an evicted pool once none of its connections is
+    // borrowed, checking again later while some are.
+    private static void retire(PoolKey key, PoolDataSource dataSource) {
+        if (dataSource == null) {
+            return;
+        }
+        int borrowed;
+        try {
+            borrowed = dataSource.getBorrowedConnectionsCount();
+        } catch (SQLException e) {
+            borrowed = 0;
+        }
+        if (borrowed > 0) {
+            log.debug("Connection pool for {} still has {} borrowed connections", key, borrowed);
+            RETIRE_EXECUTOR.schedule(() -> retire(key, dataSource), RETIRE_CHECK_SECONDS, TimeUnit.SECONDS);
+            return;
+        }
+        log.info("Destroying connection pool for {}", key);
+        destroyQuietly(dataSource);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String hash(String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(PASSWORD_KEY);
+            return HexFormat.of().formatHex(mac.doFinal(
+                    (password != null ? password : "").getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void destroyQuietly(PoolDataSource dataSource) {
+        try {
+            UniversalConnectionPoolManagerImpl.getUniversalConnectionPoolManager()
+                    .destroyConnectionPool(dataSource.getConnectionPoolName());
+        } catch (Exception e) {
+            log.warn("Failed to destroy connection pool {}: {}", dataSource.getConnectionPoolName(), e.toString());
+        }
+    }
+}
@@ -7,22 +7,64 @@
 package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
 
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import javax.sql.DataSource;
+
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaKey;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaSource;
 
 /**
  * The `OracleDatabase` class serves as a SQLAlchemy wrapper around an Oracle database. It provides methods for interacting with the database, executing SQL queries, and retrieving table and column information. This class simplifies database interactions by encapsulating common operations within a convenient API.
+ *
+ * Connections are borrowed from the pool shared through `OracleDataSources` for each operation and returned as soon as the operation completes.
+ * Table names and rendered table information are kept in the shared `OracleSchemaCache` unless `genai.db.schema-cache.enabled` is false.
  */
 @Slf4j
 public class OracleDatabase {
-    private final Connection connection;
+    private static final int METADATA_FETCH_SIZE = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.metadata-fetch-size", Integer.class).orElse(1000);
+
+    private static final int SAMPLE_ROWS_PARALLELISM = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.sample-rows.parallelism", Integer.class).orElse(4);
+
+    private static final int SAMPLE_ROWS_QUERY_TIMEOUT_SECONDS = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.sample-rows.query-timeout-seconds", Integer.class).orElse(5);
+
+    private static final int RESULT_FETCH_SIZE = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.result.fetch-size", Integer.class).orElse(100);
+
+    private static final int RESULT_MAX_ROWS = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.result.max-rows", Integer.class).orElse(1000);
+
+    // Results are rendered within both the size limit and the token limit,
+    // counted as four characters per token.
+    private static final int RESULT_MAX_CHARS = Math.min(
+            ConfigProvider.getConfig().getOptionalValue("genai.db.result.max-bytes", Integer.class).orElse(65536),
+            4 * ConfigProvider.getConfig().getOptionalValue("genai.db.result.max-tokens", Integer.class)
+                    .orElse(8192));
+
+    private static final int INITIAL_RESULT_CHARS = 1024;
+
+    private static final int LOB_READ_CHARS = 8192;
+
+    private final DataSource dataSource;
 
     private final List<String> includeTables;
 
@@ -32,6 +74,27 @@ public class OracleDatabase {
 
     private boolean indexesInTableInfo;
 
+    private final OracleSchemaCache schemaCache;
+
+    private volatile SchemaKey schemaKey;
+
+    private final SchemaSource schemaSource = new SchemaSource() {
+        @Override
+        public List<String> loadTableNames() {
+            return loadAllTables();
+        }
+
+        @Override
+        public Map<String, String> renderTableInfos(Collection<String> tableNames) {
+            return OracleDatabase.this.renderTableInfos(tableNames);
+        }
+
+        @Override
+        public String ddlFingerprint() {
+            return loadDdlFingerprint();
+        }
+    };
+
     public OracleDatabase(String url, String username, String password) {
         this(url, username, password, null, null, 3, false);
     }
@@ -39,14 +102,21 @@ public class OracleDatabase {
     @SneakyThrows(SQLException.class)
     public OracleDatabase(String url, String username, String password, List<String> includeTables,
             List<String> ignoreTables, int sampleRowsInTableInfo, boolean indexesInTableInfo) {
+        this(OracleDataSources.getInstance().getDataSource(url, username, password), includeTables, ignoreTables,
+                sampleRowsInTableInfo, indexesInTableInfo);
+    }
+
+    public OracleDatabase(DataSource dataSource, List<String> includeTables, List<String> ignoreTables,
+            int sampleRowsInTableInfo, boolean indexesInTableInfo) {
         if (CollectionUtils.isNotEmpty(includeTables) && CollectionUtils.isNotEmpty(ignoreTables)) {
             throw new IllegalArgumentException("Cannot specify both includeTables and ignoreTables");
         }
-        this.connection = DriverManager.getConnection(url, username, password);
+        this.dataSource = dataSource;
         this.includeTables = includeTables;
         this.ignoreTables = ignoreTables;
         this.sampleRowsInTableInfo = sampleRowsInTableInfo;
         this.indexesInTableInfo = indexesInTableInfo;
+        this.schemaCache = OracleSchemaCache.isEnabled() ? OracleSchemaCache.getInstance() : null;
     }
 
     public static OracleDatabase fromUri(String url, String username, String password) {
@@ -58,9 +128,11 @@ public class OracleDatabase {
      */
     @SneakyThrows(SQLException.class)
     public String getDialect() {
-        return connection.getMetaData()
-                .getDatabaseProductName()
-                .toLowerCase();
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData()
+                    .getDatabaseProductName()
+                    .toLowerCase();
+        }
     }
 
     /**
@@ -79,15 +151,24 @@ public class OracleDatabase {
         return allTables;
     }
 
-    @SneakyThrows(SQLException.class)
     private List<String> getAllTables() {
+        if (schemaCache != null) {
+            return new ArrayList<>(schemaCache.getTableNames(getSchemaKey(), schemaSource));
+        }
+        return loadAllTables();
+    }
+
+    @SneakyThrows(SQLException.class)
+    private List<String> loadAllTables() {
         log.info("Get all tables...");
         List<String> allTables = new ArrayList<>();
-        DatabaseMetaData metaData = connection.getMetaData();
-        try (ResultSet resultSet = metaData.getTables(connection.getCatalog(), connection.getSchema(), "%",
-                new String[] { "TABLE" })) {
-            while (resultSet.next()) {
-                allTables.add(resultSet.getString("TABLE_NAME"));
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet resultSet = metaData.getTables(connection.getCatalog(), connection.getSchema(), "%",
+                    new String[] { "TABLE" })) {
+                while (resultSet.next()) {
+                    allTables.add(resultSet.getString("TABLE_NAME"));
+                }
             }
         }
         return allTables;
@@ -104,6 +185,18 @@ public class OracleDatabase {
      * This can increase performance as demonstrated in the paper.
      */
     public String getTableInfo(List<String> tableNames) {
+        return String.join("\n\n", getTableInfos(tableNames).values());
+    }
+
+    /**
+     * Get the information of each specified table, as rendered by
+     * `getTableInfo`.
+     *
+     * @param tableNames The tables to describe, or null for all usable tables.
+     * @return The information of each table found, by table name in the given
+     *         order.
+     */
+    public Map<String, String> getTableInfos(List<String> tableNames) {
         log.info("Get information about specified tables...");
         List<String> allTableNames = getUsableTableNames();
 
@@ -116,98 +209,162 @@ public class OracleDatabase {
             allTableNames = tableNames;
         }
 
-        List<String> tables = new ArrayList<>();
+        Map<String, String> tableInfos = schemaCache != null
+                ? schemaCache.getTableInfos(getSchemaKey(), schemaSource, allTableNames)
+                : renderTableInfos(allTableNames);
+        Map<String, String> tables = new LinkedHashMap<>();
         for (String tableName : allTableNames) {
-            String createTable = getTableDdl(tableName);
-            String tableInfo = createTable.replaceAll("\\n+$", "");
+            String tableInfo = tableInfos.get(tableName);
+            if (tableInfo != null) {
+                tables.put(tableName, tableInfo);
+            }
+        }
+        return tables;
+    }
+
+    // Private method to render the DDL, indexes and sample rows of the given
+    // tables. The DDL and indexes of all tables are read in one pass over the data
+    // dictionary and the sample rows are collected in parallel.
+    private Map<String, String> renderTableInfos(Collection<String> tableNames) {
+        Map<String, String> tableDdls = getTableDdls(tableNames);
+        Map<String, String> indexes = indexesInTableInfo ? getTableIndexes(tableDdls.keySet()) : Map.of();
+        Map<String, String> sampleRows = sampleRowsInTableInfo > 0 ? getSampleRows(tableDdls.keySet()) : Map.of();
+        Map<String, String> tableInfos = new LinkedHashMap<>();
+        for (Map.Entry<String, String> createTable : tableDdls.entrySet()) {
+            String tableName = createTable.getKey();
+            String tableInfo = createTable.getValue().replaceAll("\\n+$", "");
+            String tableSampleRows = sampleRows.get(tableName);
 
-            boolean hasExtraInfo = indexesInTableInfo || sampleRowsInTableInfo > 0;
+            boolean hasExtraInfo = indexesInTableInfo || tableSampleRows != null;
             if (hasExtraInfo) {
                 tableInfo += "\n\n/*";
             }
             if (indexesInTableInfo) {
-                tableInfo += "\n" + getTableIndexes(tableName) + "\n";
+                tableInfo += "\n" + indexes.getOrDefault(tableName, "") + "\n";
             }
-            if (sampleRowsInTableInfo > 0) {
-                tableInfo += "\n" + getSampleRows(tableName) + "\n";
+            if (tableSampleRows != null) {
+                tableInfo += "\n" + tableSampleRows + "\n";
             }
             if (hasExtraInfo) {
                 tableInfo += "*/";
             }
-            tables.add(tableInfo);
+            tableInfos.put(tableName, tableInfo);
         }
-        return String.join("\n\n", tables);
+        return tableInfos;
     }
 
+    // Identifies the schema of the pooled connections, resolved once from the
+    // connection metadata.
     @SneakyThrows(SQLException.class)
-    public String getTableDdl(String tableName) {
-        log.info("Get tables DDL...");
-        StringBuilder builder = new StringBuilder();
-        DatabaseMetaData metaData = connection.getMetaData();
-        ResultSet resultSet = metaData.getTables(connection.getCatalog(), connection.getSchema(), tableName,
-                new String[] { "TABLE" });
-
-        while (resultSet.next()) {
-            ResultSet columnsResultSet = metaData.getColumns(connection.getCatalog(), connection.getSchema(), tableName,
-                    "%");
-            builder.append("\nCREATE TABLE ").append(tableName).append(" (");
-
-            while (columnsResultSet.next()) {
-                String columnName = columnsResultSet.getString("COLUMN_NAME");
-                String columnType = columnsResultSet.getString("TYPE_NAME");
-                int columnSize = columnsResultSet.getInt("COLUMN_SIZE");
-                int decimalDigits = columnsResultSet.getInt("DECIMAL_DIGITS");
-                boolean isNullable = columnsResultSet.getBoolean("NULLABLE");
-                String defaultValue = columnsResultSet.getString("COLUMN_DEF");
-                String columnComment = columnsResultSet.getString("REMARKS");
-
-                builder.append("\n\t").append(columnName).append(" ").append(columnType);
-                if (columnSize > 0) {
-                    builder.append("(").append(columnSize);
-                    if (decimalDigits > 0) {
-                        builder.append(",").append(decimalDigits);
-                    }
-                    builder.append(")");
-                }
-                if (!isNullable) {
-                    builder.append(" NOT NULL");
-                }
-                if (defaultValue != null) {
-                    builder.append(" DEFAULT ").append(defaultValue);
-                }
-                if (StringUtils.isNotEmpty(columnComment)) {
-                    builder.append(" COMMENT '").append(columnComment).append("'");
-                }
-                builder.append(",");
-            }
-            // Remove the last comma
-            if (builder.charAt(builder.length() - 1) == ',') {
-                builder.deleteCharAt(builder.length() - 1);
+    SchemaKey getSchemaKey() {
+        if (schemaKey == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                schemaKey = new SchemaKey(metaData.getURL(), metaData.getUserName(), connection.getSchema(),
+                        sampleRowsInTableInfo, indexesInTableInfo);
             }
-            String tableComment = resultSet.getString("REMARKS");
-            if (StringUtils.isNotEmpty(tableComment)) {
-                builder.append("\n) COMMENT '").append(tableComment).append("'\n\n");
-            } else {
-                builder.append("\n)\n\n");
+        }
+        return schemaKey;
+    }
+
+    /**
+     * Returns a value that changes whenever a table or index of the schema is
+     * created, altered or dropped. With the schema cache, the value is the one
+     * of its last DDL change check, or null when that check is disabled.
+     *
+     * @return The DDL fingerprint of the schema.
+     */
+    String getDdlFingerprint() {
+        return schemaCache != null ? schemaCache.getDdlFingerprint(getSchemaKey(), schemaSource)
+                : loadDdlFingerprint();
+    }
+
+    // Private method to summarize the DDL state of the schema. The value changes
+    // when a table or index is created, altered or dropped.
+    @SneakyThrows(SQLException.class)
+    private String loadDdlFingerprint() {
+        String sql = "SELECT COUNT(*), MAX(LAST_DDL_TIME) FROM ALL_OBJECTS"
+                + " WHERE OWNER = ? AND OBJECT_TYPE IN ('TABLE', 'INDEX')";
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, connection.getSchema());
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) + "@" + resultSet.getTimestamp(2) : "";
             }
         }
-        return builder.toString();
+    }
+
+    public String getTableDdl(String tableName) {
+        return getTableDdls(List.of(tableName)).getOrDefault(tableName, "");
+    }
+
+    /**
+     * Get the CREATE TABLE statements of the specified tables, read with
+     * set-based queries on the data dictionary.
+     */
+    @SneakyThrows(SQLException.class)
+    public Map<String, String> getTableDdls(Collection<String> tableNames) {
+        log.info("Get tables DDL...");
+        try (Connection connection = dataSource.getConnection()) {
+            return OracleSchemaIntrospector.loadTableDdls(connection, connection.getSchema(), tableNames,
+                    METADATA_FETCH_SIZE);
+        }
     }
 
     public String getTableIndexes(String tableName) {
-        return "";
+        return getTableIndexes(List.of(tableName)).getOrDefault(tableName, "");
+    }
+
+    /**
+     * Get the indexes of the specified tables, read with one query on the data
+     * dictionary.
+     */
+    @SneakyThrows(SQLException.class)
+    public Map<String, String> getTableIndexes(Collection<String> tableNames) {
+        log.info("Get tables indexes...");
+        try (Connection connection = dataSource.getConnection()) {
+            return OracleSchemaIntrospector.loadTableIndexes(connection, connection.getSchema(), tableNames,
+                    METADATA_FETCH_SIZE);
+        }
     }
 
+    @SneakyThrows(SQLException.class)
     public String getSampleRows(String tableName) {
         log.info("Get sample data for a specified table...");
         // Build the select command
         String command = "SELECT * FROM " + tableName + " OFFSET 0 ROWS FETCH NEXT " + sampleRowsInTableInfo
                 + " ROWS ONLY ";
-        String result = run(command, true);
+        String result = run(command, List.of(), true, SAMPLE_ROWS_QUERY_TIMEOUT_SECONDS);
         // Save the sample rows in string format
         return String.format("%d rows from %s table:\n%s", sampleRowsInTableInfo, tableName, result);
     }
 
+    /**
+     * Get sample rows of the specified tables, querying at most
+     * `genai.db.sample-rows.parallelism` tables at a time on pooled connections.
+     * Tables whose query fails or exceeds `genai.db.sample-rows.query-timeout-seconds`
+     * are left out of the result.
+     */
+    public Map<String, String> getSampleRows(Collection<String> tableNames) {
+        Map<String, String> sampleRows = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(SAMPLE_ROWS_PARALLELISM);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String tableName : tableNames) {
+                executor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        sampleRows.put(tableName, getSampleRows(tableName));
+                    } catch (Exception e) {
+                        log.warn("Skip sample rows of table {}: {}", tableName, e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return sampleRows;
+    }
+
     /**
      * Execute a SQL command and return a string representing the results.
      *
@@ -218,35 +375,40 @@ public class OracleDatabase {
      */
     @SneakyThrows(SQLException.class)
     public String run(String command, boolean includeColumnName) {
-        log.info("Run an sql command...");
-        try (Statement stmt = connection.createStatement()) {
-            if (stmt.execute(command)) {
-                ResultSet resultSet = stmt.getResultSet();
-                ResultSetMetaData metaData = resultSet.getMetaData();
-                int columnCount = resultSet.getMetaData().getColumnCount();
-                String result = "";
-                if (includeColumnName) {
-                    List<String> columns = new ArrayList<>();
-                    for (int i = 1; i <= columnCount; i++) {
-                        columns.add(metaData.getColumnName(i));
-                    }
-                    String columnsStr = String.join("\t", columns);
-                    result += columnsStr + "\n";
-                }
+        return run(command, List.of(), includeColumnName, 0);
+    }
 
-                List<List<String>> data = new ArrayList<>();
-                while (resultSet.next()) {
-                    List<String> row = new ArrayList<>();
-                    for (int i = 1; i <= columnCount; i++) {
-                        row.add(resultSet.getString(i));
-                    }
-                    data.add(row);
+    /**
+     * Execute a SQL command with `?` bind markers and return a string representing
+     * the results.
+     *
+     * <p>
+     * The values are bound in marker order, so the SQL text stays the same for
+     * every value and is served from the statement cache of the pooled connection.
+     */
+    @SneakyThrows(SQLException.class)
+    public String run(String command, List<Object> bindValues, boolean includeColumnName) {
+        return run(command, bindValues, includeColumnName, 0);
+    }
+
+    // Private method to execute a SQL command, cancelled after the given number
+    // of seconds unless it is zero.
+    private String run(String command, List<Object> bindValues, boolean includeColumnName, int queryTimeoutSeconds)
+            throws SQLException {
+        log.info("Run an sql command...");
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(command)) {
+            for (int i = 0; i < bindValues.size(); i++) {
+                stmt.setObject(i + 1, bindValues.get(i));
+            }
+            stmt.setQueryTimeout(queryTimeoutSeconds);
+            stmt.setFetchSize(RESULT_FETCH_SIZE);
+            // One extra row tells whether the result was cut by the row limit.
+            stmt.setMaxRows(RESULT_MAX_ROWS + 1);
+            if (stmt.execute()) {
+                try (ResultSet resultSet = stmt.getResultSet()) {
+                    return renderResultSet(resultSet, includeColumnName);
                 }
-                String rowsStr = data.stream()
-                        .map(row -> String.join("\t", row))
-                        .collect(Collectors.joining("\n"));
-                result += rowsStr;
-                return result;
             } else {
                 int updateCount = stmt.getUpdateCount();
                 return "Update Count: " + updateCount;
@@ -254,10 +416,101 @@ public class OracleDatabase {
         }
     }
 
-    @SneakyThrows(SQLException.class)
-    public void close() {
-        if (connection != null) {
-            connection.close();
+    // Private method to render a result set as tab-separated lines, streaming the
+    // rows into one buffer that grows up to the configured limits. No value is
+    // read past the character budget. Rows beyond `genai.db.result.max-rows` or
+    // past the character budget are dropped and a truncation marker is appended
+    // instead.
+    private String renderResultSet(ResultSet resultSet, boolean includeColumnName) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        boolean[] characterLobs = new boolean[columnCount + 1];
+        for (int i = 1; i <= columnCount; i++) {
+            characterLobs[i] = switch (metaData.getColumnType(i)) {
+                case Types.CLOB, Types.NCLOB, Types.LONGVARCHAR, Types.LONGNVARCHAR -> true;
+                default -> false;
+            };
+        }
+        StringBuilder result = new StringBuilder(INITIAL_RESULT_CHARS);
+        if (includeColumnName) {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    result.append('\t');
+                }
+                result.append(metaData.getColumnName(i));
+            }
+            result.append('\n');
+        }
+
+        int rows = 0;
+        String truncatedBy = null;
+        while (resultSet.next()) {
+            if (rows == RESULT_MAX_ROWS) {
+                truncatedBy = "row";
+                break;
+            }
+            int rowStart = result.length();
+            if (rows > 0) {
+                result.append('\n');
+            }
+            for (int i = 1; i <= columnCount && result.length() <= RESULT_MAX_CHARS; i++) {
+                if (i > 1) {
+                    result.append('\t');
+                }
+                // One character past the budget tells that the row does not fit.
+                appendValue(result, resultSet, i, characterLobs[i], RESULT_MAX_CHARS + 1 - result.length());
+            }
+            if (result.length() > RESULT_MAX_CHARS) {
+                result.setLength(rowStart);
+                truncatedBy = "size";
+                break;
+            }
+            rows++;
         }
+        if (truncatedBy != null) {
+            result.append("\n... [result truncated after ").append(rows).append(" rows, ").append(truncatedBy)
+                    .append(" limit reached]");
+        }
+        return result.toString();
+    }
+
+    // Private method to append at most `maxChars` characters of a column value.
+    // Character LOBs are read through a bounded stream, so that a large value is
+    // never read into memory as a whole.
+    private static void appendValue(StringBuilder result, ResultSet resultSet, int column, boolean characterLob,
+            int maxChars) throws SQLException {
+        if (maxChars <= 0) {
+            return;
+        }
+        if (!characterLob) {
+            String value = resultSet.getString(column);
+            if (value != null && value.length() > maxChars) {
+                result.append(value, 0, maxChars);
+            } else {
+                result.append(value);
+            }
+            return;
+        }
+        try (Reader reader = resultSet.getCharacterStream(column)) {
+            if (reader == null) {
+                result.append((String) null);
+                return;
+            }
+            char[] buffer = new char[Math.min(maxChars, LOB_READ_CHARS)];
+            int read;
+            while (maxChars > 0 && (read = reader.read(buffer, 0, Math.min(buffer.length, maxChars))) != -1) {
+                result.append(buffer, 0, read);
+                maxChars -= read;
+            }
+        } catch (IOException e) {
+            throw new SQLException("Failed to read column " + column, e);
+        }
+    }
+
+    /**
+     * Connections are returned to the shared pool after every operation, so there
+     * is nothing to release. Pools are closed by `OracleDataSources`.
+     */
+    public void close() {
     }
 }
@@ -39,6 +39,10 @@ import static com.oracle.ateam.genai.langchain4java.chain.sql.oracle.prompt.Prom
  * - Option to return intermediate steps along with the final result.
  * - Option to return the direct result of querying the SQL table.
  * - Ability to use a query checker tool to refine SQL queries.
+ * - Reuse of the SQL query generated for a repeated question through the
+ * `GeneratedSqlCache`.
+ * - A `table_info` assembled within a token budget by the
+ * `PromptBudgetPlanner`.
  *
  * The class is typically used in conjunction with an Oracle Database and a
  * relevant LLM model, which can generate SQL queries
@@ -76,6 +80,8 @@ public class OracleDatabaseChain extends Chain {
     private BasePromptTemplate queryCheckerPrompt;
     private String sqlCmd;
     private Map<String, Object> sqlProperties;
+    private GeneratedSqlCache sqlCache = GeneratedSqlCache.isEnabled() ? GeneratedSqlCache.getInstance() : null;
+    private PromptBudgetPlanner budgetPlanner = PromptBudgetPlanner.getInstance();
 
     /**
      * Creates an instance of `OracleDatabaseChain` with the provided LLM chain and
@@ -196,7 +202,15 @@ public class OracleDatabaseChain extends Chain {
         String inputText;
         Map<String, Object> llmInputs = new HashMap<>();
         var tableNamesToUse = (List<String>) inputs.get("table_names_to_use");
-        String tableInfo = database.getTableInfo(tableNamesToUse);
+        String question = String.valueOf(inputs.get(this.inputKey));
+        // Tables chosen by a decider or selector are ranked by relevance already.
+        String tableInfo = budgetPlanner
+                .plan(question, database.getTableInfos(tableNamesToUse), tableNamesToUse != null)
+                .tableInfo();
+        String sqlCmd = this.sqlCmd;
+        List<Object> bindValues = List.of();
+        boolean generated = false;
+        String schemaVersion = null;
         if (sqlCmd == null || sqlCmd.isEmpty()) {
             inputText = inputs.get(this.inputKey) + "\nSQLQuery:";
             // If not present, then defaults to null which is all tables.
@@ -206,18 +220,13 @@ public class OracleDatabaseChain extends Chain {
             llmInputs.put("table_info", tableInfo);
             llmInputs.put("stop", List.of("\n\nSQLResult:"));
 
-            String predictResult = llmChain.predict(llmInputs);
-            String sqlCmd = extractSQLQueryFromText(predictResult);
+            schemaVersion = sqlCache != null ? schemaVersion() : null;
+            sqlCmd = sqlCache != null ? sqlCache.lookup(question, tableNamesToUse, schemaVersion) : null;
             if (sqlCmd == null) {
-                int index1 = predictResult.indexOf("\nSQLResult");
-                int index2 = predictResult.indexOf("\nAnswer");
-                if (index1 != -1 && (index2 == -1 || index1 < index2)) {
-                    sqlCmd = predictResult.substring(0, index1).replace(";", "");
-                } else if (index2 != -1) {
-                    sqlCmd = predictResult.substring(0, index2).replace(";", "");
-                } else {
-                    sqlCmd = predictResult;
-                }
+                sqlCmd = generateSqlCmd(llmInputs);
+                generated = true;
+            } else {
+                log.info("Reuse the SQL query generated for the same question...");
             }
             this.sqlCmd = sqlCmd;
         } else {
@@ -229,15 +238,21 @@ public class OracleDatabaseChain extends Chain {
             llmInputs.put("stop", List.of("\n\nSQLResult:"));
             for (Entry<String, Object> entry : sqlProperties.entrySet()) {
                 llmInputs.put(entry.getKey(), entry.getValue());
-                String placeholder = "{" + entry.getKey() + "}";
-                String value = entry.getValue().toString();
-                sqlCmd = sqlCmd.replace(placeholder, value);
             }
+            // Placeholders are bound as values instead of being substituted into
+            // the SQL text.
+            SqlTemplate template = SqlTemplate.parse(sqlCmd, sqlProperties.keySet());
+            sqlCmd = template.sql(sqlProperties);
+            bindValues = template.bindValues(sqlProperties);
         }
 
-        sqlCmd = sqlCmd.replace(";", "");
+        sqlCmd = SqlTemplate.stripTerminator(sqlCmd);
 
-        String result = database.run(sqlCmd, true);
+        String result = database.run(sqlCmd, bindValues, true);
+        if (generated && sqlCache != null) {
+            // The query executed successfully, so it is valid for the question.
+            sqlCache.update(question, tableNamesToUse, schemaVersion, sqlCmd);
+        }
 
         /*
          * If return direct, we just set the final result equal to the result of the sql
@@ -256,6 +271,7 @@ public class OracleDatabaseChain extends Chain {
         
         if (log.isDebugEnabled()) {
             log.debug("SQL command:\n {}", sqlCmd);
+            log.debug("SQL binds: {}", bindValues);
             log.debug("SQLResult: \n{}", result);
             log.debug("Final Result: \n{}", finalResult);
         }
@@ -263,6 +279,30 @@ public class OracleDatabaseChain extends Chain {
         return Map.of(outputKey, finalResult);
     }
 
+    // Private method to identify the schema version the generated queries are
+    // cached for. Without a DDL fingerprint, entries only expire with the TTL.
+    private String schemaVersion() {
+        return database.getSchemaKey() + "@" + database.getDdlFingerprint();
+    }
+
+    // Private method to ask the LLM to translate the question into a SQL query.
+    private String generateSqlCmd(Map<String, Object> llmInputs) {
+        String predictResult = llmChain.predict(llmInputs);
+        String sqlCmd = extractSQLQueryFromText(predictResult);
+        if (sqlCmd == null) {
+            int index1 = predictResult.indexOf("\nSQLResult");
+            int index2 = predictResult.indexOf("\nAnswer");
+            if (index1 != -1 && (index2 == -1 || index1 < index2)) {
+                sqlCmd = SqlTemplate.stripTerminator(predictResult.substring(0, index1));
+            } else if (index2 != -1) {
+                sqlCmd = SqlTemplate.stripTerminator(predictResult.substring(0, index2));
+            } else {
+                sqlCmd = predictResult;
+            }
+        }
+        return sqlCmd;
+    }
+
     /**
      * Extracts the SQL query from a text string containing the query and result.
      *
@@ -51,6 +51,10 @@ import static com.oracle.ateam.genai.langchain4java.chain.sql.oracle.prompt.Prom
  * load the relevant tables and perform SQL queries. The chains should be loaded
  * using appropriate LLM models and prompts.
  *
+ * With an `EmbeddingTableSelector`, the candidate tables are first narrowed
+ * down to the tables most similar to the query. The decider LLM call then only
+ * sees those candidates, or is skipped entirely when no decider chain is set.
+ *
  * Example usage:
  * ```java
  * OracleDatabaseChain sqlChain = OracleDatabaseChain.fromLLM(llm, database,
@@ -67,6 +71,7 @@ public class OracleDatabaseSequentialChain extends Chain {
     private static final Logger LOG = LoggerFactory.getLogger(OracleDatabaseSequentialChain.class);
     private OracleDatabaseChain sqlChain;
     private LLMChain deciderChain;
+    private EmbeddingTableSelector tableSelector;
     private String inputKey = "query";
     private String outputKey = "result";
 
@@ -82,6 +87,22 @@ public class OracleDatabaseSequentialChain extends Chain {
         this.deciderChain = deciderChain;
     }
 
+    /**
+     * Creates an instance of `OracleDatabaseSequentialChain` that narrows the
+     * candidate tables with embeddings.
+     *
+     * @param sqlChain      The SQL chain responsible for database queries.
+     * @param deciderChain  The LLM chain used for table name selection among the
+     *                      candidates, or null to use the candidates directly.
+     * @param tableSelector The selector of the candidate tables.
+     */
+    public OracleDatabaseSequentialChain(OracleDatabaseChain sqlChain, LLMChain deciderChain,
+            EmbeddingTableSelector tableSelector) {
+        this.sqlChain = sqlChain;
+        this.deciderChain = deciderChain;
+        this.tableSelector = tableSelector;
+    }
+
     /**
      * Load the necessary chains and create an instance of
      * `OracleDatabaseSequentialChain` based on the provided LLM model,
@@ -117,6 +138,25 @@ public class OracleDatabaseSequentialChain extends Chain {
         return fromLLM(llm, database, PROMPT, DECIDER_PROMPT);
     }
 
+    /**
+     * Create an instance of `OracleDatabaseSequentialChain` that selects the
+     * candidate tables by embedding similarity.
+     *
+     * @param llm           The LLM (Language Model) to use for creating the chains.
+     * @param database      The Oracle database to query.
+     * @param tableSelector The selector of the candidate tables.
+     * @param useDecider    Whether the decider LLM call still picks among the
+     *                      candidates.
+     * @return An instance of `OracleDatabaseSequentialChain` configured with
+     *         default prompts.
+     */
+    public static OracleDatabaseSequentialChain fromLLM(BaseLanguageModel llm, OracleDatabase database,
+            EmbeddingTableSelector tableSelector, boolean useDecider) {
+        OracleDatabaseChain sqlChain = OracleDatabaseChain.fromLLM(llm, database, PROMPT);
+        LLMChain deciderChain = useDecider ? new LLMChain(llm, DECIDER_PROMPT, "table_names") : null;
+        return new OracleDatabaseSequentialChain(sqlChain, deciderChain, tableSelector);
+    }
+
     /**
      * Specifies the type of the chain, which is "oracle_database_sequential_chain".
      *
@@ -160,7 +200,16 @@ public class OracleDatabaseSequentialChain extends Chain {
     @Override
     public Map<String, String> innerCall(Map<String, Object> inputs) {
         log.info("Executing Oracle Database Sequential Chain...");
-        List<String> tableNameList = sqlChain.getDatabase().getUsableTableNames();
+        List<String> tableNameList;
+        if (tableSelector != null) {
+            tableNameList = tableSelector.selectTables(sqlChain.getDatabase(), String.valueOf(inputs.get(inputKey)));
+            LOG.info("Candidate tables by similarity: {}", tableNameList);
+            if (deciderChain == null) {
+                return callSqlChain(inputs, tableNameList);
+            }
+        } else {
+            tableNameList = sqlChain.getDatabase().getUsableTableNames();
+        }
         String tableNames = String.join(", ", tableNameList);
         var llmInputs = Map.of("query", inputs.get(inputKey),
                 "table_names", tableNames);
@@ -178,6 +227,11 @@ public class OracleDatabaseSequentialChain extends Chain {
             }
         }
         LOG.info("Table names to use: {}", tableNamesToUse);
+        return callSqlChain(inputs, tableNamesToUse);
+    }
+
+    // Private method to run the SQL chain restricted to the given tables.
+    private Map<String, String> callSqlChain(Map<String, Object> inputs, List<String> tableNamesToUse) {
         var newInputs = Map.of(sqlChain.getInputKey(), inputs.get(inputKey), "table_names_to_use", tableNamesToUse);
         return sqlChain.call(newInputs, true);
     }
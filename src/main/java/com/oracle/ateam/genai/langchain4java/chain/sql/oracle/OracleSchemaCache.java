@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `OracleSchemaCache` class keeps the schema metadata that
+ * `OracleDatabase` renders into the `table_info` of a prompt, so that chains
+ * build it from memory instead of querying the data dictionary on every call.
+ *
+ * Snapshots are keyed by database URL, user and schema. A snapshot holds the
+ * table names of the schema and the rendered DDL, indexes and sample rows of
+ * every table a chain has asked for. Snapshots older than
+ * `genai.db.schema-cache.ttl-minutes` are served while a background refresh
+ * reloads them. When `genai.db.schema-cache.ddl-check-enabled` is true, the
+ * latest `ALL_OBJECTS.LAST_DDL_TIME` of the schema is compared at most every
+ * `genai.db.schema-cache.ddl-check-seconds` and a changed schema is reloaded
+ * before it is used.
+ */
+@Slf4j
+public class OracleSchemaCache {
+
+    private static final OracleSchemaCache INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private static final boolean ENABLED = ConfigProvider.getConfig()
+            .getOptionalValue("genai.db.schema-cache.enabled", Boolean.class).orElse(true);
+
+    private static final ExecutorService REFRESH_EXECUTOR = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("schema-refresh-", 0).factory());
+
+    private final Cache<SchemaKey, SchemaSnapshot> snapshots;
+
+    private final long ttlNanos;
+
+    private final long ddlCheckNanos;
+
+    private final Set<SchemaKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder ddlInvalidations = new LongAdder();
+
+    /**
+     * The identity of a cached schema. The rendering options are part of the key
+     * because they change the rendered table information.
+     */
+    public record SchemaKey(String url, String username, String schema, int sampleRows, boolean indexes) {
+    }
+
+    /**
+     * The loader of the metadata of a schema.
+     */
+    interface SchemaSource {
+
+        /**
+         * Lists the tables of the schema.
+         */
+        List<String> loadTableNames();
+
+        /**
+         * Renders the DDL, indexes and sample rows of the given tables, by table
+         * name.
+         */
+        Map<String, String> renderTableInfos(Collection<String> tableNames);
+
+        /**
+         * Returns a value that changes whenever a DDL statement changes the schema.
+         */
+        String ddlFingerprint();
+    }
+
+    /**
+     * The cached metadata of a schema. Tables are rendered on first use.
+     */
+    private static final class SchemaSnapshot {
+        private final List<String> tableNames;
+        private final ConcurrentMap<String, String> tableInfos = new ConcurrentHashMap<>();
+        private final String ddlFingerprint;
+        private final long loadedAt;
+        private volatile long checkedAt;
+
+        private SchemaSnapshot(List<String> tableNames, String ddlFingerprint) {
+            this.tableNames = List.copyOf(tableNames);
+            this.ddlFingerprint = ddlFingerprint;
+            this.loadedAt = System.nanoTime();
+            this.checkedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Creates a new schema cache.
+     *
+     * @param ttl              The age after which a snapshot is refreshed in the
+     *                         background.
+     * @param ddlCheckInterval The minimum interval between two DDL change checks
+     *                         of a schema, or null to disable change detection.
+     * @param maxSchemas       The maximum number of cached schemas.
+     */
+    public OracleSchemaCache(Duration ttl, Duration ddlCheckInterval, long maxSchemas) {
+        this.ttlNanos = ttl.toNanos();
+        this.ddlCheckNanos = ddlCheckInterval == null ? -1 : ddlCheckInterval.toNanos();
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSchemas)
+                .expireAfterAccess(ttl.multipliedBy(4))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache shared by the application, configured from MicroProfile
+     * Config.
+     *
+     * @return The shared `OracleSchemaCache`.
+     */
+    public static OracleSchemaCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether `OracleDatabase` uses the shared cache, as configured by
+     * `genai.db.schema-cache.enabled`.
+     *
+     * @return True if the schema cache is enabled.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static OracleSchemaCache fromConfig(Config config) {
+        Duration ttl = Duration.ofMinutes(config.getOptionalValue("genai.db.schema-cache.ttl-minutes", Long.class)
+                .orElse(15L));
+        boolean ddlCheckEnabled = config.getOptionalValue("genai.db.schema-cache.ddl-check-enabled", Boolean.class)
+                .orElse(true);
+        Duration ddlCheckInterval = Duration.ofSeconds(
+                config.getOptionalValue("genai.db.schema-cache.ddl-check-seconds", Long.class).orElse(60L));
+        long maxSchemas = config.getOptionalValue("genai.db.schema-cache.max-schemas", Long.class).orElse(64L);
+        return new OracleSchemaCache(ttl, ddlCheckEnabled ? ddlCheckInterval : null, maxSchemas);
+    }
+
+    /**
+     * Returns the table names of a schema.
+     *
+     * @param key    The schema identity.
+     * @param source The loader used when the schema is not cached.
+     * @return The table names of the schema.
+     */
+    List<String> getTableNames(SchemaKey key, SchemaSource source) {
+        return snapshot(key, source).tableNames;
+    }
+
+    /**
+     * Returns the DDL fingerprint of a schema, as of its last DDL change check.
+     *
+     * @param key    The schema identity.
+     * @param source The loader used when the schema is not cached.
+     * @return The fingerprint, or null when DDL change detection is disabled.
+     */
+    String getDdlFingerprint(SchemaKey key, SchemaSource source) {
+        return snapshot(key, source).ddlFingerprint;
+    }
+
+    /**
+     * Returns the rendered information of the given tables. Tables that are not
+     * cached yet are rendered together in one batch.
+     *
+     * @param key        The schema identity.
+     * @param source     The loader used for the tables that are not cached.
+     * @param tableNames The table names.
+     * @return The rendered DDL, indexes and sample rows of each table found, by
+     *         table name.
+     */
+    Map<String, String> getTableInfos(SchemaKey key, SchemaSource source, List<String> tableNames) {
+        SchemaSnapshot snapshot = snapshot(key, source);
+        List<String> missing = new ArrayList<>();
+        for (String tableName : tableNames) {
+            if (!snapshot.tableInfos.containsKey(tableName)) {
+                missing.add(tableName);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Rendered outside of any lock, a concurrent render of the same tables
+            // is harmless.
+            source.renderTableInfos(missing).forEach(snapshot.tableInfos::putIfAbsent);
+        }
+        Map<String, String> tableInfos = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            String tableInfo = snapshot.tableInfos.get(tableName);
+            if (tableInfo != null) {
+                tableInfos.put(tableName, tableInfo);
+            }
+        }
+        return tableInfos;
+    }
+
+    /**
+     * Drops the cached metadata of a schema.
+     *
+     * @param key The schema identity.
+     */
+    public void invalidate(SchemaKey key) {
+        snapshots.invalidate(key);
+    }
+
+    /**
+     * Drops the cached metadata of every schema.
+     */
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return snapshots.stats();
+    }
+
+    /**
+     * Returns the number of cached schemas.
+     *
+     * @return The estimated number of schemas.
+     */
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    /**
+     * Returns the number of completed background refreshes.
+     *
+     * @return The refresh count.
+     */
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Returns the number of snapshots reloaded because the schema DDL changed.
+     *
+     * @return The DDL invalidation count.
+     */
+    public long ddlInvalidationCount() {
+        return ddlInvalidations.sum();
+    }
+
+    // Private method to return the current snapshot of a schema, reloading it
+    // when its DDL changed and refreshing it in the background when it is stale.
+    private SchemaSnapshot snapshot(SchemaKey key, SchemaSource source) {
+        SchemaSnapshot snapshot = snapshots.get(key, k -> load(source, Set.of()));
+        long now = System.nanoTime();
+        if (ddlCheckNanos >= 0 && now - snapshot.checkedAt >= ddlCheckNanos) {
+            snapshot.checkedAt = now;
+            if (!Objects.equals(source.ddlFingerprint(), snapshot.ddlFingerprint)) {
+                log.info("Schema {} changed, reloading its metadata", key.schema());
+                ddlInvalidations.increment();
+                SchemaSnapshot reloaded = load(source, Set.of());
+                snapshots.put(key, reloaded);
+                return reloaded;
+            }
+        }
+        if (now - snapshot.loadedAt >= ttlNanos && refreshing.add(key)) {
+            REFRESH_EXECUTOR.execute(() -> refresh(key, source, snapshot));
+        }
+        return snapshot;
+    }
+
+    // Private method to reload a stale snapshot, including the tables it had
+    // rendered, and swap it in unless it was replaced meanwhile.
+    private void refresh(SchemaKey key, SchemaSource source, SchemaSnapshot stale) {
+        try {
+            SchemaSnapshot refreshed = load(source, stale.tableInfos.keySet());
+            snapshots.asMap().replace(key, stale, refreshed);
+            refreshes.increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh the metadata of schema {}: {}", key.schema(), e.toString());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private SchemaSnapshot load(SchemaSource source, Collection<String> tablesToRender) {
+        String fingerprint = ddlCheckNanos >= 0 ? source.ddlFingerprint() : null;
+        SchemaSnapshot snapshot = new SchemaSnapshot(source.loadTableNames(), fingerprint);
+        List<String> tableNames = tablesToRender.stream().filter(snapshot.tableNames::contains).toList();
+        if (!tableNames.isEmpty()) {
+            snapshot.tableInfos.putAll(source.renderTableInfos(tableNames));
+        }
+        return snapshot;
+    }
+}
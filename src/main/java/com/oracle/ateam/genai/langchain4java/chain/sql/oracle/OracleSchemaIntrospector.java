@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The `OracleSchemaIntrospector` class reads the definition of many tables of a
+ * schema with set-based queries against the Oracle data dictionary and renders
+ * their CREATE TABLE statements in memory.
+ *
+ * The columns and comments of every table come from one query on
+ * `ALL_TAB_COLUMNS`, and the primary, unique and foreign keys from one query on
+ * `ALL_CONSTRAINTS`, instead of a pair of JDBC `DatabaseMetaData` calls per
+ * table. The indexes of every table come from one query on `ALL_INDEXES`.
+ *
+ * The requested tables are pushed into the queries as IN-lists of at most 64
+ * names, padded to a power of two so that the database parses few distinct
+ * statements. Only a request for 256 tables or more, such as a full refresh of
+ * the schema, reads the dictionary of the whole schema in one query per view.
+ */
+final class OracleSchemaIntrospector {
+
+    private static final String COLUMNS_SQL = """
+            SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.DATA_LENGTH, c.CHAR_LENGTH, c.CHAR_USED,
+                   c.DATA_PRECISION, c.DATA_SCALE, c.NULLABLE, c.DATA_DEFAULT_VC, cc.COMMENTS, tc.COMMENTS
+              FROM ALL_TAB_COLUMNS c
+              JOIN ALL_TABLES t ON t.OWNER = c.OWNER AND t.TABLE_NAME = c.TABLE_NAME
+              LEFT JOIN ALL_COL_COMMENTS cc
+                ON cc.OWNER = c.OWNER AND cc.TABLE_NAME = c.TABLE_NAME AND cc.COLUMN_NAME = c.COLUMN_NAME
+              LEFT JOIN ALL_TAB_COMMENTS tc ON tc.OWNER = c.OWNER AND tc.TABLE_NAME = c.TABLE_NAME
+             WHERE c.OWNER = ?%s
+             ORDER BY c.TABLE_NAME, c.COLUMN_ID""";
+
+    private static final String CONSTRAINTS_SQL = """
+            SELECT ac.TABLE_NAME, ac.CONSTRAINT_NAME, ac.CONSTRAINT_TYPE, acc.COLUMN_NAME,
+                   rc.TABLE_NAME, rcc.COLUMN_NAME
+              FROM ALL_CONSTRAINTS ac
+              JOIN ALL_CONS_COLUMNS acc ON acc.OWNER = ac.OWNER AND acc.CONSTRAINT_NAME = ac.CONSTRAINT_NAME
+              LEFT JOIN ALL_CONSTRAINTS rc ON rc.OWNER = ac.R_OWNER AND rc.CONSTRAINT_NAME = ac.R_CONSTRAINT_NAME
+              LEFT JOIN ALL_CONS_COLUMNS rcc
+                ON rcc.OWNER = rc.OWNER AND rcc.CONSTRAINT_NAME = rc.CONSTRAINT_NAME AND rcc.POSITION = acc.POSITION
+             WHERE ac.OWNER = ? AND ac.CONSTRAINT_TYPE IN ('P', 'U', 'R')%s
+             ORDER BY ac.TABLE_NAME, ac.CONSTRAINT_NAME, acc.POSITION""";
+
+    private static final String INDEXES_SQL = """
+            SELECT i.TABLE_NAME, i.INDEX_NAME, i.UNIQUENESS, ic.COLUMN_NAME
+              FROM ALL_INDEXES i
+              JOIN ALL_IND_COLUMNS ic ON ic.INDEX_OWNER = i.OWNER AND ic.INDEX_NAME = i.INDEX_NAME
+             WHERE i.TABLE_OWNER = ?%s
+             ORDER BY i.TABLE_NAME, i.INDEX_NAME, ic.COLUMN_POSITION""";
+
+    private static final int IN_LIST_SIZE = 64;
+
+    private static final int WHOLE_SCHEMA_MIN_TABLES = 256;
+
+    /**
+     * Handles a row of a data dictionary query.
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(ResultSet resultSet) throws SQLException;
+    }
+
+    private OracleSchemaIntrospector() {
+    }
+
+    /**
+     * Renders the CREATE TABLE statements of the given tables.
+     *
+     * @param connection The connection to read the data dictionary with.
+     * @param schema     The owner of the tables.
+     * @param tableNames The tables to render.
+     * @param fetchSize  The number of dictionary rows fetched per round trip.
+     * @return The CREATE TABLE statement of each table found, by table name.
+     * @throws SQLException If the data dictionary cannot be read.
+     */
+    static Map<String, String> loadTableDdls(Connection connection, String schema, Collection<String> tableNames,
+            int fetchSize) throws SQLException {
+        Map<String, TableDefinition> tables = new LinkedHashMap<>();
+        query(connection, COLUMNS_SQL, "c.TABLE_NAME", schema, tableNames, fetchSize, resultSet -> tables
+                .computeIfAbsent(resultSet.getString(1), name -> new TableDefinition(name, getString(resultSet, 12)))
+                .columns.add(renderColumn(resultSet)));
+        query(connection, CONSTRAINTS_SQL, "ac.TABLE_NAME", schema, tableNames, fetchSize, resultSet -> {
+            TableDefinition table = tables.get(resultSet.getString(1));
+            if (table != null) {
+                table.constraints.computeIfAbsent(resultSet.getString(2),
+                        name -> new ConstraintDefinition(getString(resultSet, 3), getString(resultSet, 5)))
+                        .add(resultSet.getString(4), resultSet.getString(6));
+            }
+        });
+        Map<String, String> ddls = new LinkedHashMap<>();
+        for (TableDefinition table : tables.values()) {
+            ddls.put(table.name, table.render());
+        }
+        return ddls;
+    }
+
+    /**
+     * Renders the indexes of the given tables.
+     *
+     * @param connection The connection to read the data dictionary with.
+     * @param schema     The owner of the tables.
+     * @param tableNames The tables whose indexes are rendered.
+     * @param fetchSize  The number of dictionary rows fetched per round trip.
+     * @return The indexes of each table that has any, by table name.
+     * @throws SQLException If the data dictionary cannot be read.
+     */
+    static Map<String, String> loadTableIndexes(Connection connection, String schema, Collection<String> tableNames,
+            int fetchSize) throws SQLException {
+        Map<String, Map<String, IndexDefinition>> tables = new LinkedHashMap<>();
+        query(connection, INDEXES_SQL, "i.TABLE_NAME", schema, tableNames, fetchSize, resultSet -> tables
+                .computeIfAbsent(resultSet.getString(1), name -> new LinkedHashMap<>())
+                .computeIfAbsent(resultSet.getString(2),
+                        name -> new IndexDefinition(name, "UNIQUE".equals(getString(resultSet, 3))))
+                .columns.add(resultSet.getString(4)));
+        Map<String, String> indexes = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, IndexDefinition>> table : tables.entrySet()) {
+            List<String> lines = new ArrayList<>();
+            lines.add("Table Indexes:");
+            for (IndexDefinition index : table.getValue().values()) {
+                lines.add(index.render());
+            }
+            indexes.put(table.getKey(), String.join("\n", lines));
+        }
+        return indexes;
+    }
+
+    // Private method to run a data dictionary query for the given tables, with the
+    // table names bound as IN-lists, or on the whole schema for many tables. Rows
+    // of other tables are skipped.
+    private static void query(Connection connection, String sql, String tableColumn, String schema,
+            Collection<String> tableNames, int fetchSize, RowHandler handler) throws SQLException {
+        Set<String> wanted = new TreeSet<>(tableNames);
+        if (wanted.isEmpty()) {
+            return;
+        }
+        if (wanted.size() >= WHOLE_SCHEMA_MIN_TABLES) {
+            runQuery(connection, String.format(sql, ""), schema, List.of(), fetchSize, wanted, handler);
+            return;
+        }
+        List<String> names = new ArrayList<>(wanted);
+        for (int start = 0; start < names.size(); start += IN_LIST_SIZE) {
+            List<String> chunk = new ArrayList<>(names.subList(start, Math.min(start + IN_LIST_SIZE, names.size())));
+            int size = Integer.highestOneBit(chunk.size());
+            if (size < chunk.size()) {
+                size <<= 1;
+            }
+            chunk.addAll(Collections.nCopies(size - chunk.size(), chunk.get(chunk.size() - 1)));
+            String filter = " AND " + tableColumn + " IN (" + String.join(", ", Collections.nCopies(size, "?"))
+                    + ")";
+            runQuery(connection, String.format(sql, filter), schema, chunk, fetchSize, wanted, handler);
+        }
+    }
+
+    private static void runQuery(Connection connection, String sql, String schema, List<String> tableNames,
+            int fetchSize, Set<String> wanted, RowHandler handler) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setFetchSize(fetchSize);
+            stmt.setString(1, schema);
+            for (int i = 0; i < tableNames.size(); i++) {
+                stmt.setString(i + 2, tableNames.get(i));
+            }
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                while (resultSet.next()) {
+                    if (wanted.contains(resultSet.getString(1))) {
+                        handler.accept(resultSet);
+                    }
+                }
+            }
+        }
+    }
+
+    // Private method to render a column definition from the current row of the
+    // columns query.
+    private static String renderColumn(ResultSet resultSet) throws SQLException {
+        StringBuilder builder = new StringBuilder();
+        String dataType = resultSet.getString(3);
+        builder.append(resultSet.getString(2)).append(" ").append(dataType);
+        if (dataType.contains("CHAR") || dataType.equals("RAW")) {
+            boolean charUsed = "C".equals(resultSet.getString(6));
+            builder.append("(").append(charUsed ? resultSet.getInt(5) : resultSet.getInt(4));
+            builder.append(charUsed && !dataType.startsWith("N") ? " CHAR)" : ")");
+        } else if (dataType.equals("NUMBER") && resultSet.getObject(7) != null) {
+            builder.append("(").append(resultSet.getInt(7));
+            int scale = resultSet.getInt(8);
+            if (scale > 0) {
+                builder.append(",").append(scale);
+            }
+            builder.append(")");
+        }
+        if ("N".equals(resultSet.getString(9))) {
+            builder.append(" NOT NULL");
+        }
+        String defaultValue = StringUtils.trimToNull(resultSet.getString(10));
+        if (defaultValue != null) {
+            builder.append(" DEFAULT ").append(defaultValue);
+        }
+        String columnComment = resultSet.getString(11);
+        if (StringUtils.isNotEmpty(columnComment)) {
+            builder.append(" COMMENT '").append(columnComment).append("'");
+        }
+        return builder.toString();
+    }
+
+    private static String getString(ResultSet resultSet, int columnIndex) {
+        try {
+            return resultSet.getString(columnIndex);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The columns, keys and comment of a table.
+     */
+    private static final class TableDefinition {
+        private final String name;
+        private final String comment;
+        private final List<String> columns = new ArrayList<>();
+        private final Map<String, ConstraintDefinition> constraints = new LinkedHashMap<>();
+
+        private TableDefinition(String name, String comment) {
+            this.name = name;
+            this.comment = comment;
+        }
+
+        private String render() {
+            List<String> lines = new ArrayList<>(columns);
+            for (ConstraintDefinition constraint : constraints.values()) {
+                lines.add(constraint.render());
+            }
+            StringBuilder builder = new StringBuilder();
+            builder.append("\nCREATE TABLE ").append(name).append(" (");
+            builder.append("\n\t").append(String.join(",\n\t", lines));
+            if (StringUtils.isNotEmpty(comment)) {
+                builder.append("\n) COMMENT '").append(comment).append("'\n\n");
+            } else {
+                builder.append("\n)\n\n");
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * An index of a table.
+     */
+    private static final class IndexDefinition {
+        private final String name;
+        private final boolean unique;
+        private final List<String> columns = new ArrayList<>();
+
+        private IndexDefinition(String name, boolean unique) {
+            this.name = name;
+            this.unique = unique;
+        }
+
+        private String render() {
+            return "Name: " + name + ", Unique: " + unique + ", Columns: [" + String.join(", ", columns) + "]";
+        }
+    }
+
+    /**
+     * A primary key, unique key or foreign key of a table.
+     */
+    private static final class ConstraintDefinition {
+        private final String type;
+        private final String referencedTable;
+        private final List<String> columns = new ArrayList<>();
+        private final List<String> referencedColumns = new ArrayList<>();
+
+        private ConstraintDefinition(String type, String referencedTable) {
+            this.type = type;
+            this.referencedTable = referencedTable;
+        }
+
+        private void add(String column, String referencedColumn) {
+            columns.add(column);
+            if (referencedColumn != null) {
+                referencedColumns.add(referencedColumn);
+            }
+        }
+
+        private String render() {
+            String keyColumns = "(" + String.join(", ", columns) + ")";
+            return switch (type) {
+                case "P" -> "PRIMARY KEY " + keyColumns;
+                case "U" -> "UNIQUE " + keyColumns;
+                default -> "FOREIGN KEY " + keyColumns + " REFERENCES " + referencedTable + " ("
+                        + String.join(", ", referencedColumns) + ")";
+            };
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `PromptBudgetPlanner` class assembles the `table_info` of the Oracle SQL
+ * prompts within a token budget, so that large schemas do not exceed the
+ * context of the model.
+ *
+ * Tokens are estimated as four characters per token. The tables are taken by
+ * relevance: in the given order when the tables were already ranked, for
+ * example by a decider chain or an `EmbeddingTableSelector`, otherwise by the
+ * number of question terms found in their DDL. The DDL of the most relevant
+ * tables is added first and their indexes and sample rows are only added with
+ * the budget left, so that more tables fit. The most relevant table is always
+ * kept. The prompt budget is `genai.db.prompt-budget.max-tokens`, of which
+ * `genai.db.prompt-budget.reserved-tokens` are kept for the instructions of
+ * the template and the answer. A budget of 0 disables the planning, and the
+ * tables are then kept in their given order.
+ *
+ * Every plan is passed to the plan listener, which `LangChain4JavaMetrics` uses
+ * to record the budget usage per plan.
+ *
+ * Example usage:
+ * ```java
+ * PromptBudgetPlanner.Plan plan = PromptBudgetPlanner.getInstance().plan(question, database.getTableInfos(null), false);
+ * ```
+ */
+@Slf4j
+public class PromptBudgetPlanner {
+
+    private static final PromptBudgetPlanner INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    // The indexes and sample rows are rendered in a comment after the DDL.
+    private static final String EXTRA_INFO_START = "\n\n/*";
+
+    private static final String TABLE_SEPARATOR = "\n\n";
+
+    private final int maxTokens;
+
+    private final int reservedTokens;
+
+    private final LongAdder plans = new LongAdder();
+
+    private final LongAdder droppedTables = new LongAdder();
+
+    private final LongAdder droppedExtraInfos = new LongAdder();
+
+    private volatile Consumer<Plan> planListener = plan -> {
+    };
+
+    /**
+     * The `table_info` planned for a prompt.
+     *
+     * @param tableInfo       The information of the included tables.
+     * @param tableNames      The included tables, most relevant first.
+     * @param estimatedTokens The estimated tokens of the whole prompt.
+     */
+    public record Plan(String tableInfo, List<String> tableNames, int estimatedTokens) {
+    }
+
+    /**
+     * Creates a new planner.
+     *
+     * @param maxTokens      The token budget of the prompt, or 0 for no budget.
+     * @param reservedTokens The tokens kept for the template and the answer.
+     */
+    public PromptBudgetPlanner(int maxTokens, int reservedTokens) {
+        this.maxTokens = maxTokens;
+        this.reservedTokens = reservedTokens;
+    }
+
+    /**
+     * Returns the planner shared by the application, configured from
+     * MicroProfile Config.
+     *
+     * @return The shared `PromptBudgetPlanner`.
+     */
+    public static PromptBudgetPlanner getInstance() {
+        return INSTANCE;
+    }
+
+    private static PromptBudgetPlanner fromConfig(Config config) {
+        int maxTokens = config.getOptionalValue("genai.db.prompt-budget.max-tokens", Integer.class).orElse(6144);
+        int reservedTokens = config.getOptionalValue("genai.db.prompt-budget.reserved-tokens", Integer.class)
+                .orElse(1024);
+        return new PromptBudgetPlanner(maxTokens, reservedTokens);
+    }
+
+    /**
+     * Estimates the number of tokens of a text.
+     *
+     * @param text The text to estimate.
+     * @return The estimated number of tokens.
+     */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Assembles the `table_info` of a question within the token budget.
+     *
+     * @param question   The natural-language question.
+     * @param tableInfos The information of each candidate table.
+     * @param ranked     Whether the candidate tables are already ordered by
+     *                   relevance.
+     * @return The planned `table_info`.
+     */
+    public Plan plan(String question, Map<String, String> tableInfos, boolean ranked) {
+        int fixedTokens = reservedTokens + estimateTokens(question);
+        Map<String, String> included = new LinkedHashMap<>();
+        if (maxTokens <= 0) {
+            included.putAll(tableInfos);
+            return record(included, fixedTokens, 0, 0);
+        }
+        List<String> order = ranked ? new ArrayList<>(tableInfos.keySet()) : rankByTerms(question, tableInfos);
+
+        int available = maxTokens - fixedTokens;
+        int usedTokens = 0;
+        int dropped = 0;
+        Map<String, String> extraInfos = new LinkedHashMap<>();
+        for (String tableName : order) {
+            String tableInfo = tableInfos.get(tableName);
+            int extraStart = tableInfo.indexOf(EXTRA_INFO_START);
+            String ddl = extraStart < 0 ? tableInfo : tableInfo.substring(0, extraStart);
+            int tokens = estimateTokens(ddl) + estimateTokens(TABLE_SEPARATOR);
+            if (usedTokens + tokens > available && !included.isEmpty()) {
+                dropped++;
+                continue;
+            }
+            usedTokens += tokens;
+            included.put(tableName, ddl);
+            if (extraStart >= 0) {
+                extraInfos.put(tableName, tableInfo.substring(extraStart));
+            }
+        }
+        int droppedExtras = 0;
+        for (Map.Entry<String, String> extraInfo : extraInfos.entrySet()) {
+            int tokens = estimateTokens(extraInfo.getValue());
+            if (usedTokens + tokens > available) {
+                droppedExtras++;
+                continue;
+            }
+            usedTokens += tokens;
+            included.merge(extraInfo.getKey(), extraInfo.getValue(), String::concat);
+        }
+        if (dropped > 0 || droppedExtras > 0) {
+            log.info("Table info cut to the prompt budget of {} tokens: {} tables and {} sample blocks left out",
+                    maxTokens, dropped, droppedExtras);
+        }
+        return record(included, fixedTokens, dropped, droppedExtras);
+    }
+
+    /**
+     * Returns the token budget of a prompt.
+     *
+     * @return The maximum number of tokens, or 0 when there is no budget.
+     */
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Returns the number of planned prompts.
+     *
+     * @return The number of plans.
+     */
+    public long planCount() {
+        return plans.sum();
+    }
+
+    /**
+     * Sets the listener called with every plan, for example to record the budget
+     * usage of each prompt.
+     *
+     * @param planListener The plan listener.
+     */
+    public void setPlanListener(Consumer<Plan> planListener) {
+        this.planListener = planListener;
+    }
+
+    /**
+     * Returns the number of tables left out of the prompts for lack of budget.
+     *
+     * @return The number of dropped tables.
+     */
+    public long droppedTableCount() {
+        return droppedTables.sum();
+    }
+
+    /**
+     * Returns the number of index and sample row blocks left out of the prompts
+     * for lack of budget.
+     *
+     * @return The number of dropped blocks.
+     */
+    public long droppedSampleBlockCount() {
+        return droppedExtraInfos.sum();
+    }
+
+    // Private method to build the plan and record its budget usage.
+    private Plan record(Map<String, String> included, int fixedTokens, int dropped, int droppedExtras) {
+        String tableInfo = String.join(TABLE_SEPARATOR, included.values());
+        int estimatedTokens = fixedTokens + estimateTokens(tableInfo);
+        plans.increment();
+        droppedTables.add(dropped);
+        droppedExtraInfos.add(droppedExtras);
+        Plan plan = new Plan(tableInfo, List.copyOf(included.keySet()), estimatedTokens);
+        planListener.accept(plan);
+        return plan;
+    }
+
+    // Private method to order the tables by the number of question terms their
+    // information contains, a match on the table name counting double. Ties keep
+    // the given order.
+    private static List<String> rankByTerms(String question, Map<String, String> tableInfos) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : String.valueOf(question).toUpperCase(Locale.ROOT).split("[^\\p{Alnum}_]+")) {
+            if (term.length() > 2) {
+                // A crude stemming, so that "orders" matches ORDER_ID.
+                terms.add(term.length() > 3 && term.endsWith("S") ? term.substring(0, term.length() - 1) : term);
+            }
+        }
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (Map.Entry<String, String> table : tableInfos.entrySet()) {
+            String tableName = table.getKey().toUpperCase(Locale.ROOT);
+            String tableInfo = table.getValue().toUpperCase(Locale.ROOT);
+            int score = 0;
+            for (String term : terms) {
+                if (tableName.contains(term)) {
+                    score += 2;
+                } else if (tableInfo.contains(term)) {
+                    score++;
+                }
+            }
+            scores.put(table.getKey(), score);
+        }
+        List<String> order = new ArrayList<>(scores.keySet());
+        order.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+        return order;
+    }
+}
@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The `SqlTemplate` class turns a SQL command with `{key}` placeholders into a
+ * SQL text with `?` bind markers and the ordered names of the values to bind.
+ *
+ * The SQL text does not depend on the values, so repeated commands are soft
+ * parsed by the server and reuse the pooled connection statement cache, and
+ * values can never change the structure of the statement. A placeholder
+ * written inside a string literal, such as `'{name}'` or `'%{name}%'`, is bound
+ * as a string and concatenated with the rest of the literal.
+ *
+ * A placeholder where a value cannot be bound is substituted into the SQL text
+ * instead, as before bind markers were used. That covers a table or column name
+ * such as `FROM {table}`, `ORDER BY {col}`, `{col} = 1` or `{alias}.ID`, and a
+ * row count such as `FETCH FIRST {n}`. Its value must then be a simple SQL name
+ * or an integer, otherwise `sql` rejects it with an `IllegalArgumentException`.
+ *
+ * Braces inside `--` line comments, block comments and `"quoted identifiers"` are
+ * kept as they are, so a placeholder there is neither bound nor substituted.
+ *
+ * Example usage:
+ * ```java
+ * SqlTemplate template = SqlTemplate.parse("SELECT * FROM {table} WHERE ENAME = '{name}'", Set.of("table", "name"));
+ * // template.sql(Map.of("table", "EMP", "name", "KING")) is "SELECT * FROM EMP WHERE ENAME = ?"
+ * ```
+ */
+final class SqlTemplate {
+
+    // Tokens after which a placeholder names a table or column, or counts rows.
+    private static final Set<String> IDENTIFIER_PREFIXES = Set.of("SELECT", "DISTINCT", "FROM", "JOIN", "INTO",
+            "UPDATE", "TABLE", "BY", "FIRST", "NEXT", "OFFSET", ".", "{}");
+
+    // Tokens after which a placeholder followed by a comparison is a column.
+    private static final Set<String> CONDITION_PREFIXES = Set.of("WHERE", "AND", "OR", "ON", "HAVING", "WHEN", "(");
+
+    // Clauses whose comma-separated items are tables or columns.
+    private static final Set<String> IDENTIFIER_LISTS = Set.of("SELECT", "FROM", "GROUP", "ORDER");
+
+    private static final Set<String> CLAUSES = Set.of("SELECT", "FROM", "WHERE", "GROUP", "ORDER", "HAVING", "SET",
+            "VALUES", "FETCH", "OFFSET");
+
+    // The token recorded after a placeholder substituted into the text, so that
+    // `{col} {direction}` is substituted as a whole.
+    private static final String INLINED = "{}";
+
+    private static final Pattern SQL_NAME_OR_INTEGER = Pattern
+            .compile("[A-Za-z][A-Za-z0-9_$#]*(\\.[A-Za-z][A-Za-z0-9_$#]*)*|\"[^\"]+\"|\\d+");
+
+    private final String sql;
+
+    private final List<String> bindNames;
+
+    private final Set<String> inlinedNames;
+
+    // The offset in `sql` of each substituted placeholder, in order.
+    private final List<Integer> inlinedOffsets;
+
+    // The name of each substituted placeholder, in `inlinedOffsets` order.
+    private final List<String> inlinedOrder;
+
+    private SqlTemplate(String sql, List<String> bindNames, List<Integer> inlinedOffsets, List<String> inlinedOrder) {
+        this.sql = sql;
+        this.bindNames = bindNames;
+        this.inlinedNames = Set.copyOf(inlinedOrder);
+        this.inlinedOffsets = inlinedOffsets;
+        this.inlinedOrder = inlinedOrder;
+    }
+
+    /**
+     * Parses a SQL command, replacing the placeholders of the given names with
+     * bind markers, except where a value cannot be bound. Other braces, and
+     * braces inside comments and quoted identifiers, are left untouched.
+     *
+     * @param command The SQL command with `{key}` placeholders.
+     * @param names   The placeholder names that are bound.
+     * @return The parsed template.
+     */
+    static SqlTemplate parse(String command, Set<String> names) {
+        StringBuilder sql = new StringBuilder(command.length());
+        List<String> bindNames = new ArrayList<>();
+        List<Integer> inlinedOffsets = new ArrayList<>();
+        List<String> inlinedOrder = new ArrayList<>();
+        boolean inLiteral = false;
+        int literalStart = -1;
+        String previousToken = "";
+        String clause = "";
+        for (int i = 0; i < command.length(); i++) {
+            char c = command.charAt(i);
+            if (c == '\'') {
+                if (inLiteral && isQuote(command, i + 1)) {
+                    // An escaped quote inside a literal.
+                    sql.append("''");
+                    i++;
+                    continue;
+                }
+                inLiteral = !inLiteral;
+                sql.append(c);
+                literalStart = sql.length() - 1;
+                previousToken = "'";
+                continue;
+            }
+            int skipped = inLiteral ? -1 : skipCommentOrQuotedIdentifier(command, i);
+            if (skipped > i) {
+                sql.append(command, i, skipped);
+                if (c == '"') {
+                    previousToken = "\"";
+                }
+                i = skipped - 1;
+                continue;
+            }
+            if (!inLiteral && Character.isLetter(c)) {
+                int wordEnd = i;
+                while (wordEnd < command.length() && isNameChar(command.charAt(wordEnd))) {
+                    wordEnd++;
+                }
+                previousToken = command.substring(i, wordEnd).toUpperCase(Locale.ROOT);
+                if (CLAUSES.contains(previousToken)) {
+                    clause = previousToken;
+                }
+                sql.append(command, i, wordEnd);
+                i = wordEnd - 1;
+                continue;
+            }
+            int end = c == '{' ? command.indexOf('}', i) : -1;
+            if (end < 0 || !names.contains(command.substring(i + 1, end))) {
+                sql.append(c);
+                if (!inLiteral && !Character.isWhitespace(c)) {
+                    previousToken = String.valueOf(c);
+                }
+                continue;
+            }
+            String name = command.substring(i + 1, end);
+            if (!inLiteral && isIdentifierPosition(previousToken, clause, command, end + 1)) {
+                inlinedOffsets.add(sql.length());
+                inlinedOrder.add(name);
+                sql.append(command, i, end + 1);
+                previousToken = INLINED;
+                i = end;
+                continue;
+            }
+            bindNames.add(name);
+            i = end;
+            if (!inLiteral) {
+                sql.append('?');
+                previousToken = "?";
+                continue;
+            }
+            // Split the literal around the bind marker, dropping empty parts.
+            if (sql.length() - 1 == literalStart) {
+                sql.setLength(literalStart);
+            } else {
+                sql.append("' || ");
+            }
+            sql.append('?');
+            if (isQuote(command, end + 1) && !isQuote(command, end + 2)) {
+                inLiteral = false;
+                previousToken = "?";
+                i = end + 1;
+            } else {
+                sql.append(" || '");
+                literalStart = sql.length() - 1;
+            }
+        }
+        return new SqlTemplate(sql.toString(), List.copyOf(bindNames), List.copyOf(inlinedOffsets),
+                List.copyOf(inlinedOrder));
+    }
+
+    // Private method to find the end of the comment or quoted identifier starting
+    // at the index, or return the index when there is none.
+    private static int skipCommentOrQuotedIdentifier(String command, int index) {
+        int end;
+        if (command.startsWith("--", index)) {
+            end = command.indexOf('\n', index);
+        } else if (command.startsWith("/*", index)) {
+            end = command.indexOf("*/", index + 2);
+            end = end < 0 ? -1 : end + 2;
+        } else if (command.charAt(index) == '"') {
+            end = command.indexOf('"', index + 1);
+            end = end < 0 ? -1 : end + 1;
+        } else {
+            return index;
+        }
+        return end < 0 ? command.length() : end;
+    }
+
+    // Private method to check whether a placeholder outside a literal stands for
+    // a table or column name or a row count, where a value cannot be bound.
+    private static boolean isIdentifierPosition(String previousToken, String clause, String command, int next) {
+        if (IDENTIFIER_PREFIXES.contains(previousToken)
+                || previousToken.equals(",") && IDENTIFIER_LISTS.contains(clause)) {
+            return true;
+        }
+        while (next < command.length() && Character.isWhitespace(command.charAt(next))) {
+            next++;
+        }
+        char following = next < command.length() ? command.charAt(next) : ' ';
+        return following == '.' || CONDITION_PREFIXES.contains(previousToken) && "=<>!".indexOf(following) >= 0;
+    }
+
+    /**
+     * Returns the SQL text with bind markers, with the given values substituted
+     * for the placeholders where a value cannot be bound.
+     *
+     * @param properties The placeholder values by name.
+     * @return The SQL text to execute with the bind values.
+     * @throws IllegalArgumentException If a substituted value is not a simple SQL
+     *                                  name or an integer.
+     */
+    String sql(Map<String, Object> properties) {
+        StringBuilder result = new StringBuilder(sql.length());
+        int copied = 0;
+        for (int i = 0; i < inlinedOrder.size(); i++) {
+            String name = inlinedOrder.get(i);
+            String value = String.valueOf(properties.get(name));
+            if (!SQL_NAME_OR_INTEGER.matcher(value).matches()) {
+                throw new IllegalArgumentException("Placeholder {" + name + "} stands for a table name, column name"
+                        + " or row count, so its value must be a simple SQL name or an integer: " + value);
+            }
+            int offset = inlinedOffsets.get(i);
+            result.append(sql, copied, offset).append(value);
+            copied = offset + name.length() + 2;
+        }
+        return result.append(sql, copied, sql.length()).toString();
+    }
+
+    /**
+     * Returns the SQL text with bind markers, and with the placeholders where a
+     * value cannot be bound left as they are.
+     *
+     * @return The SQL text.
+     */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Returns the placeholder name of each bind marker, in order.
+     *
+     * @return The bind names.
+     */
+    List<String> getBindNames() {
+        return bindNames;
+    }
+
+    /**
+     * Returns the values to bind, in bind marker order.
+     *
+     * @param properties The placeholder values by name.
+     * @return The bind values.
+     */
+    List<Object> bindValues(Map<String, Object> properties) {
+        List<Object> values = new ArrayList<>(bindNames.size());
+        for (String name : bindNames) {
+            values.add(properties.get(name));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the names of the placeholders substituted into the SQL text.
+     *
+     * @return The substituted names.
+     */
+    Set<String> getInlinedNames() {
+        return inlinedNames;
+    }
+
+    /**
+     * Removes the statement terminator that JDBC rejects, keeping semicolons
+     * inside the statement, such as in string literals.
+     *
+     * @param command The SQL command.
+     * @return The command without trailing semicolons and whitespace.
+     */
+    static String stripTerminator(String command) {
+        int end = command.length();
+        while (end > 0 && (command.charAt(end - 1) == ';' || Character.isWhitespace(command.charAt(end - 1)))) {
+            end--;
+        }
+        return command.substring(0, end);
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private static boolean isQuote(String command, int index) {
+        return index < command.length() && command.charAt(index) == '\'';
+    }
+}
@@ -7,13 +7,23 @@
 package com.oracle.ateam.genai.langchain4java.llms;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
 import com.oracle.bmc.generativeaiinference.responses.EmbedTextResponse;
+import com.oracle.bmc.model.BmcException;
 
+import lombok.Builder;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 /**
  * The `GenAIEmbedBase` class serves as the base class for embedding text using
@@ -32,17 +42,53 @@ import lombok.extern.slf4j.Slf4j;
  * generate text embeddings, and it supports a specific
  * model ID, compartment ID, and region for text embedding.
  *
+ * `embedAll` embeds any number of texts: the texts are split into batches of
+ * `batchSize` inputs, the largest the service accepts by default, and up to
+ * `maxConcurrency` batches are embedded in parallel on virtual threads. A batch
+ * that fails with a throttling, server or I/O error is retried up to
+ * `maxRetries` times with exponential backoff. The vectors are returned in
+ * input order as a primitive `float[][]`.
+ *
  */
 @Slf4j
 @SuperBuilder
 public class GenAICohereEmbedBase {
 
+    private static final Config CONFIG = ConfigProvider.getConfig();
+
+    private static final int DEFAULT_BATCH_SIZE = CONFIG
+            .getOptionalValue("genai.embed.batch-size", Integer.class).orElse(96);
+
+    private static final int DEFAULT_MAX_RETRIES = CONFIG
+            .getOptionalValue("genai.embed.max-retries", Integer.class).orElse(3);
+
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(CONFIG
+            .getOptionalValue("genai.embed.retry-backoff-millis", Long.class).orElse(200L));
+
     // Fields for configuration and interaction with the Generative AI Embedding
     // service.
     protected String modeId;
     protected GenerativeAiClient generativeAiClient;
     protected String compartmentId;
 
+    @Builder.Default
+    protected Integer batchSize = DEFAULT_BATCH_SIZE;
+
+    @Builder.Default
+    protected Integer maxConcurrency = GenAISchedulers.maxConcurrency();
+
+    @Builder.Default
+    protected Integer maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Returns the identifier of the embedding model.
+     *
+     * @return The model identifier.
+     */
+    public String getModeId() {
+        return modeId;
+    }
+
     /**
      * Embeds the provided list of text into embeddings using the Generative AI
      * Embedding service.
@@ -59,4 +105,85 @@ public class GenAICohereEmbedBase {
 
         return embedTextResponse;
     }
+
+    /**
+     * Embeds any number of texts in parallel batches.
+     *
+     * @param texts The texts to embed.
+     * @return The embedding of each text, in input order.
+     * @throws IOException
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    public float[][] embedAll(List<String> texts) throws InterruptedException, ExecutionException, IOException {
+        int size = batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        int batches = (texts.size() + size - 1) / size;
+        int concurrency = maxConcurrency != null && maxConcurrency > 0 ? maxConcurrency
+                : GenAISchedulers.maxConcurrency();
+        log.info("Embed {} texts in {} batches...", texts.size(), batches);
+        float[][] vectors = new float[texts.size()][];
+        try {
+            Flux.range(0, batches)
+                    .flatMap(batch -> {
+                        int start = batch * size;
+                        List<String> inputs = texts.subList(start, Math.min(start + size, texts.size()));
+                        return Mono.fromCallable(() -> embedBatch(inputs))
+                                .subscribeOn(GenAISchedulers.blockingIo())
+                                .retryWhen(Retry.backoff(maxRetries != null ? maxRetries : 0, RETRY_BACKOFF)
+                                        .filter(GenAICohereEmbedBase::isRetryable)
+                                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                                .doOnNext(embeddings -> copyVectors(embeddings, vectors, start));
+                    }, concurrency)
+                    .blockLast();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof ExecutionException executionException) {
+                throw executionException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+        return vectors;
+    }
+
+    /**
+     * Embeds one batch of texts in a single service call.
+     *
+     * @param inputs The texts of the batch.
+     * @return The embedding of each text, in input order.
+     * @throws IOException
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    protected List<List<Float>> embedBatch(List<String> inputs)
+            throws InterruptedException, ExecutionException, IOException {
+        return generativeAiClient.embedText(inputs).getEmbedTextResult().getEmbeddings();
+    }
+
+    // Private method to copy the embeddings of a batch into the result, at the
+    // position of the batch.
+    private static void copyVectors(List<List<Float>> embeddings, float[][] vectors, int start) {
+        for (int i = 0; i < embeddings.size(); i++) {
+            List<Float> embedding = embeddings.get(i);
+            float[] vector = new float[embedding.size()];
+            for (int j = 0; j < vector.length; j++) {
+                vector[j] = embedding.get(j);
+            }
+            vectors[start + i] = vector;
+        }
+    }
+
+    // Throttling, server and I/O errors are transient, client errors are not.
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof BmcException bmcException) {
+            return bmcException.getStatusCode() == 429 || bmcException.getStatusCode() >= 500
+                    || bmcException.isTimeout();
+        }
+        return error instanceof IOException || error instanceof ExecutionException;
+    }
 }
@@ -58,15 +58,9 @@ public class GenAICohereEmbedModel extends GenAICohereEmbedBase {
         public GenAICohereEmbedModel init() throws IOException {
                 log.info("Creating GenAI Cohere Embdeding...");
 
-                this.generativeAiClient = GenerativeAiClient.builder()
-                                .compartmentId(compartmentId)
-                                .configProfile(configProfile)
-                                .endpoint(endpoint)
-                                .configLocation(configLocation)
-                                .region(region)
-                                .modelId(this.modeId)
-                                .build()
-                                .init();
+                this.generativeAiClient = GenerativeAiClientRegistry.getInstance()
+                                .getClient(configLocation, configProfile, region, endpoint, compartmentId)
+                                .forModel(this.modeId);
                 this.compartmentId = generativeAiClient.getCompartmentId();
                 return this;
         }
@@ -10,8 +10,16 @@ import lombok.Builder;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Collectors;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
 import com.hw.langchain.llms.base.BaseLLM;
 import com.hw.langchain.schema.AsyncLLMResult;
@@ -62,6 +70,8 @@ import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
 @SuperBuilder
 public class GenAICohereGenerationBase extends BaseLLM {
 
+    private static final String STREAM_DATA_PREFIX = "data:";
+
     // Fields for configuration and interaction with the Generative AI service.
     GenerativeAiClient generativeAiClient;
     String modeId;
@@ -82,7 +92,9 @@ public class GenAICohereGenerationBase extends BaseLLM {
 
     /**
      * Generates text using the Generative AI service based on the provided prompts
-     * and stop sequences.
+     * and stop sequences. All prompts are sent concurrently, with at most
+     * `batchSize` calls in flight, and the generations are returned in prompt
+     * order.
      *
      * @param prompts The list of prompts to generate text from.
      * @param stop    The list of stop sequences to determine text generation
@@ -90,41 +102,101 @@ public class GenAICohereGenerationBase extends BaseLLM {
      * @return The result of text generation as an LLMResult.
      */
     protected LLMResult innerGenerate(List<String> prompts, List<String> stop) {
-        log.info("Generating Text");
-        List<GeneratedText> outputs = null;
-        try {
-            CohereLlmInferenceRequest cohereLlmInferenceRequest = CohereLlmInferenceRequest.builder()
-                    .prompt(prompts.get(0))
-                    .maxTokens(maxTokens)
-                    .temperature(temperature)
-                    .frequencyPenalty(frequencyPenalty)
-                    .presencePenalty(presencePenalty)
-                    .topP(topP)
-                    .topK(topK)
-                    .stopSequences(stopSequences)
-                    .numGenerations(numGenerations)
-                    .isStream(isStream)
-                    .isEcho(isEcho)
-                    .build();
-
-            GenerateTextResponse generateTextResponse = generativeAiClient.generateText(cohereLlmInferenceRequest);
-            CohereLlmInferenceResponse cohereResponse = (CohereLlmInferenceResponse) generateTextResponse
-                    .getGenerateTextResult().getInferenceResponse();
-            outputs = cohereResponse.getGeneratedTexts();
-
-        } catch (Exception e) {
-            e.printStackTrace();
+        log.info("Generating Text for {} prompt(s)", prompts.size());
+        List<List<GeneratedText>> outputs = generateAll(prompts).collectList().block();
+        return createLLMResult(outputs, Map.of());
+    }
+
+    // Private method to send every prompt, bounded by the batch size, and emit the
+    // generated texts of each prompt in prompt order.
+    private Flux<List<GeneratedText>> generateAll(List<String> prompts) {
+        int concurrency = batchSize != null && batchSize > 0 ? batchSize : GenAISchedulers.maxConcurrency();
+        return Flux.fromIterable(prompts)
+                .flatMapSequential(prompt -> Mono.fromCallable(() -> generateTexts(prompt))
+                        .subscribeOn(GenAISchedulers.blockingIo()), concurrency);
+    }
+
+    /**
+     * Builds the Cohere inference request for a single prompt from the configured
+     * generation parameters.
+     *
+     * @param prompt The prompt to generate text from.
+     * @return The Cohere inference request.
+     */
+    protected CohereLlmInferenceRequest buildInferenceRequest(String prompt) {
+        return buildInferenceRequest(prompt, isStream);
+    }
+
+    // Private method to build the inference request with an explicit stream flag.
+    private CohereLlmInferenceRequest buildInferenceRequest(String prompt, Boolean stream) {
+        return CohereLlmInferenceRequest.builder()
+                .prompt(prompt)
+                .maxTokens(maxTokens)
+                .temperature(temperature)
+                .frequencyPenalty(frequencyPenalty)
+                .presencePenalty(presencePenalty)
+                .topP(topP)
+                .topK(topK)
+                .stopSequences(stopSequences)
+                .numGenerations(numGenerations)
+                .isStream(stream)
+                .isEcho(isEcho)
+                .build();
+    }
+
+    /**
+     * Streams the text generated for a single prompt. The request is sent in
+     * streaming mode on the GenAI virtual thread scheduler and each token is
+     * emitted as soon as its server-sent event is read, so callers see the first
+     * token without waiting for the whole generation.
+     *
+     * @param prompt The prompt to generate text from.
+     * @return A Flux of generated tokens.
+     */
+    public Flux<String> streamText(String prompt) {
+        return Flux.<String>create(sink -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    generativeAiClient.generateTextStream(buildInferenceRequest(prompt, true)),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while (!sink.isCancelled() && (line = reader.readLine()) != null) {
+                    if (!line.startsWith(STREAM_DATA_PREFIX)) {
+                        continue;
+                    }
+                    JsonObject event = JsonParser.parseString(line.substring(STREAM_DATA_PREFIX.length()).trim())
+                            .getAsJsonObject();
+                    if (event.has("text") && !event.get("text").getAsString().isEmpty()) {
+                        sink.next(event.get("text").getAsString());
+                    }
+                    if (event.has("finishReason")) {
+                        break;
+                    }
+                }
+                sink.complete();
+            } catch (Exception e) {
+                sink.error(e);
+            }
+        }).subscribeOn(GenAISchedulers.blockingIo());
+    }
+
+    // Private method to send a single prompt and return its generated texts.
+    private List<GeneratedText> generateTexts(String prompt) throws Exception {
+        if (Boolean.TRUE.equals(isStream)) {
+            String text = streamText(prompt).collect(Collectors.joining()).block();
+            return List.of(GeneratedText.builder().text(text).build());
         }
-        return createLLMResult(outputs, prompts, Map.of());
+        GenerateTextResponse generateTextResponse = generativeAiClient.generateText(buildInferenceRequest(prompt));
+        CohereLlmInferenceResponse cohereResponse = (CohereLlmInferenceResponse) generateTextResponse
+                .getGenerateTextResult().getInferenceResponse();
+        return cohereResponse.getGeneratedTexts();
     }
 
-    // Private method to create an LLMResult based on generated text and prompts.
-    private LLMResult createLLMResult(List<GeneratedText> generatedTexts, List<String> prompts,
-            Map<String, Integer> tokenUsage) {
+    // Private method to create an LLMResult based on the generated texts of each
+    // prompt.
+    private LLMResult createLLMResult(List<List<GeneratedText>> generatedTexts, Map<String, Integer> tokenUsage) {
         // Create an LLMResult based on generated text and prompts.
         List<List<com.hw.langchain.schema.Generation>> generations = new ArrayList<>();
-        for (int i = 0; i < prompts.size(); i++) {
-            List<GeneratedText> subChoices = generatedTexts.subList(i * numGenerations, (i + 1) * numGenerations);
+        for (List<GeneratedText> subChoices : generatedTexts) {
             List<com.hw.langchain.schema.Generation> generationList = new ArrayList<>();
             for (GeneratedText generatedText : subChoices) {
                 Map<String, Object> generationInfo = new HashMap<>(2);
@@ -154,8 +226,41 @@ public class GenAICohereGenerationBase extends BaseLLM {
         return "genai_cohere";
     }
 
+    /**
+     * Generates text asynchronously. Each prompt is sent on the GenAI virtual
+     * thread scheduler, with at most `batchSize` (or `genai.async.max-concurrency`)
+     * calls in flight, and an `AsyncLLMResult` is emitted for every generated text
+     * in prompt order.
+     * When `isStream` is set, an `AsyncLLMResult` is emitted for every token.
+     *
+     * @param prompts The list of prompts to generate text from.
+     * @param stop    The list of stop sequences to determine text generation
+     *                termination.
+     * @return A Flux of generation results.
+     */
     @Override
-    protected Flux<AsyncLLMResult> asyncInnerGenerate(List<String> arg0, List<String> arg1) {
-        throw new UnsupportedOperationException("Unimplemented method 'asyncInnerGenerate'");
+    protected Flux<AsyncLLMResult> asyncInnerGenerate(List<String> prompts, List<String> stop) {
+        log.info("Generating Text asynchronously");
+        if (Boolean.TRUE.equals(isStream)) {
+            return Flux.fromIterable(prompts)
+                    .concatMap(this::streamText)
+                    .map(token -> createAsyncLLMResult(GeneratedText.builder().text(token).build()));
+        }
+        return generateAll(prompts)
+                .flatMapIterable(generatedTexts -> generatedTexts)
+                .map(this::createAsyncLLMResult);
+    }
+
+    // Private method to create an AsyncLLMResult from a single generated text.
+    private AsyncLLMResult createAsyncLLMResult(GeneratedText generatedText) {
+        Map<String, Object> generationInfo = new HashMap<>(2);
+        generationInfo.put("id", generatedText.getId());
+        com.hw.langchain.schema.Generation generation = com.hw.langchain.schema.Generation.builder()
+                .text(generatedText.getText())
+                .generationInfo(generationInfo)
+                .build();
+        Map<String, Object> llmOutput = new HashMap<>(1);
+        llmOutput.put("mode_id", modeId);
+        return new AsyncLLMResult(List.of(generation), llmOutput);
     }
 }
@@ -60,15 +60,9 @@ public class GenAICohereGenerationModel extends GenAICohereGenerationBase {
         public GenAICohereGenerationModel init() throws IOException {
                 log.info("Creating GenAI Cohere Command Langauge Model");
 
-                this.generativeAiClient = GenerativeAiClient.builder()
-                                .compartmentId(compartmentId)
-                                .configProfile(configProfile)
-                                .endpoint(endpoint)
-                                .configLocation(configLocation)
-                                .region(region)
-                                .modelId(this.modeId)
-                                .build()
-                                .init();
+                this.generativeAiClient = GenerativeAiClientRegistry.getInstance()
+                                .getClient(configLocation, configProfile, region, endpoint, compartmentId)
+                                .forModel(this.modeId);
                 return this;
         }
 
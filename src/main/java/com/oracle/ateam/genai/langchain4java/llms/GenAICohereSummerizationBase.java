@@ -9,11 +9,17 @@ package com.oracle.ateam.genai.langchain4java.llms;
 import lombok.Builder;
 import lombok.experimental.SuperBuilder;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import org.eclipse.microprofile.config.ConfigProvider;
+
 import com.oracle.bmc.generativeaiinference.responses.SummarizeTextResponse;
 
 /**
@@ -32,6 +38,16 @@ import com.oracle.bmc.generativeaiinference.responses.SummarizeTextResponse;
  * methods, such as `summerize(text)` for
  * text summarization, and `llmType()` to specify the Generative AI model type.
  *
+ * A text longer than `chunkTokens` (estimated as four characters per token) is
+ * summarized map-reduce style: it is split into chunks at paragraph and
+ * sentence boundaries, up to `batchSize` chunks are summarized in parallel on
+ * virtual threads, and the partial summaries, kept in input order, are
+ * summarized again until they fit into one final call. The number of rounds
+ * grows with the logarithm of the text length. If the partial summaries stop
+ * getting shorter, later rounds double the chunk size until a single call
+ * covers all of them, so no content is dropped. A chunk too large for the model
+ * then fails the call instead of being cut.
+ *
  * Note: It is recommended to extend this base class to build custom
  * summarization models that leverage the Generative AI
  * service for text summarization.
@@ -41,6 +57,15 @@ import com.oracle.bmc.generativeaiinference.responses.SummarizeTextResponse;
 @SuperBuilder
 public class GenAICohereSummerizationBase {
 
+    private static final int DEFAULT_CHUNK_TOKENS = ConfigProvider.getConfig()
+            .getOptionalValue("genai.summarize.chunk-tokens", Integer.class).orElse(2048);
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    // The reduce rounds after which the chunk size grows, in case the partial
+    // summaries stop getting shorter.
+    private static final int MAX_DEPTH = 8;
+
     protected GenerativeAiClient generativeAiClient;
 
     protected String modeId;
@@ -75,6 +100,12 @@ public class GenAICohereSummerizationBase {
 
     protected String compartmentId;
 
+    @Builder.Default
+    protected Boolean mapReduce = true;
+
+    @Builder.Default
+    protected Integer chunkTokens = DEFAULT_CHUNK_TOKENS;
+
     /**
      * Summarizes the given text using the Generative AI service.
      *
@@ -86,11 +117,113 @@ public class GenAICohereSummerizationBase {
      */
     public String summerize(String text) throws InterruptedException, ExecutionException, IOException {
         log.info("Summerize text start...");
-       
+        int maxChars = chunkTokens * CHARS_PER_TOKEN;
+        if (!Boolean.TRUE.equals(mapReduce) || text.length() <= maxChars) {
+            return summarizeOnce(text);
+        }
+        String summaries = text;
+        int chunkChars = maxChars;
+        for (int depth = 1; summaries.length() > maxChars; depth++) {
+            if (depth > MAX_DEPTH) {
+                chunkChars = (int) Math.min(2L * chunkChars, Integer.MAX_VALUE);
+                log.warn("Partial summaries still {} characters long after {} rounds, reduce them in chunks of {}"
+                        + " characters", summaries.length(), depth - 1, chunkChars);
+            }
+            List<String> chunks = splitIntoChunks(summaries, chunkChars);
+            log.info("Summarize {} chunks, round {}...", chunks.size(), depth);
+            List<String> partials = summarizeAll(chunks);
+            if (chunks.size() == 1) {
+                // One call covered the whole text, its summary is the final one.
+                return partials.get(0);
+            }
+            summaries = String.join("\n\n", partials);
+        }
+        return summarizeOnce(summaries);
+    }
+
+    // Private method to summarize the chunks in parallel, at most batchSize at a
+    // time, and return the summaries in chunk order.
+    private List<String> summarizeAll(List<String> chunks)
+            throws InterruptedException, ExecutionException, IOException {
+        int concurrency = batchSize != null && batchSize > 0 ? batchSize : GenAISchedulers.maxConcurrency();
+        try {
+            return Flux.fromIterable(chunks)
+                    .flatMapSequential(chunk -> Mono.fromCallable(() -> summarizeOnce(chunk))
+                            .subscribeOn(GenAISchedulers.blockingIo()), concurrency)
+                    .collectList()
+                    .block();
+        } catch (RuntimeException e) {
+            Throwable cause = Exceptions.unwrap(e);
+            if (cause instanceof InterruptedException interruptedException) {
+                throw interruptedException;
+            }
+            if (cause instanceof ExecutionException executionException) {
+                throw executionException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Summarizes a text in one service call.
+     *
+     * @param text The text to summarize.
+     * @return The summary.
+     * @throws IOException
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    protected String summarizeOnce(String text) throws InterruptedException, ExecutionException, IOException {
         SummarizeTextResponse summarizeTextResponse = generativeAiClient.summarizeText(text);
         return summarizeTextResponse.getSummarizeTextResult().getSummary();
     }
 
+    /**
+     * Splits a text into chunks of at most `maxChars` characters, at paragraph
+     * boundaries where possible, then at sentence boundaries, and only cutting a
+     * sentence that is longer than a chunk.
+     *
+     * @param text     The text to split.
+     * @param maxChars The maximum number of characters of a chunk.
+     * @return The chunks, in text order.
+     */
+    static List<String> splitIntoChunks(String text, int maxChars) {
+        List<String> pieces = new ArrayList<>();
+        for (String paragraph : text.split("\\n\\s*\\n")) {
+            if (paragraph.length() <= maxChars) {
+                pieces.add(paragraph);
+                continue;
+            }
+            for (String sentence : paragraph.split("(?<=[.!?])\\s+")) {
+                for (int start = 0; start < sentence.length(); start += maxChars) {
+                    pieces.add(sentence.substring(start, Math.min(start + maxChars, sentence.length())));
+                }
+            }
+        }
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (String piece : pieces) {
+            if (piece.isBlank()) {
+                continue;
+            }
+            if (chunk.length() > 0 && chunk.length() + 2 + piece.length() > maxChars) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+            }
+            if (chunk.length() > 0) {
+                chunk.append("\n\n");
+            }
+            chunk.append(piece.strip());
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
     /**
      * Returns the type of the Generative AI model used for text summarization.
      *
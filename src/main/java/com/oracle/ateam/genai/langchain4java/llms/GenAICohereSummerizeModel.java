@@ -68,15 +68,9 @@ public class GenAICohereSummerizeModel extends GenAICohereSummerizationBase {
         public GenAICohereSummerizeModel init() throws IOException {
                 log.info("Creating GenAI Cohere Command Langauge Model");
 
-                this.generativeAiClient = GenerativeAiClient.builder()
-                                .compartmentId(compartmentId)
-                                .configProfile(configProfile)
-                                .endpoint(endpoint)
-                                .configLocation(configLocation)
-                                .region(region)
-                                .modelId(this.modeId)
-                                .build()
-                                .init();
+                this.generativeAiClient = GenerativeAiClientRegistry.getInstance()
+                                .getClient(configLocation, configProfile, region, endpoint, compartmentId)
+                                .forModel(this.modeId);
                 return this;
         }
 }
\ No newline at end of file
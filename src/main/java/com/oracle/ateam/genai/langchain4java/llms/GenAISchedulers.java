@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The `GenAISchedulers` class holds the Reactor scheduler used to run blocking
+ * OCI Generative AI SDK calls off the caller's thread.
+ *
+ * Calls are executed on virtual threads, so a pipeline waiting on the service
+ * does not hold a platform thread. The number of calls a single pipeline keeps
+ * in flight is bounded by `genai.async.max-concurrency`.
+ *
+ * Unlike the tasks of `CompletableFuture.supplyAsync`, the tasks started by
+ * `supplyInterruptibly` and `thenApplyInterruptibly` are interrupted when the
+ * returned future is cancelled, so that a chain abandoned at its deadline stops
+ * its blocking LLM or JDBC call instead of running to the end.
+ */
+public final class GenAISchedulers {
+
+    private static final ExecutorService BLOCKING_IO_EXECUTOR = Executors
+            .newThreadPerTaskExecutor(Thread.ofVirtual().name("genai-io-", 0).factory());
+
+    private static final Scheduler BLOCKING_IO = Schedulers.fromExecutorService(BLOCKING_IO_EXECUTOR, "genai-io");
+
+    private static final int MAX_CONCURRENCY = ConfigProvider.getConfig()
+            .getOptionalValue("genai.async.max-concurrency", Integer.class).orElse(16);
+
+    private GenAISchedulers() {
+    }
+
+    /**
+     * Returns the scheduler for blocking OCI Generative AI calls.
+     *
+     * @return A scheduler backed by virtual threads.
+     */
+    public static Scheduler blockingIo() {
+        return BLOCKING_IO;
+    }
+
+    /**
+     * Returns the executor of the blocking OCI Generative AI calls, for pipelines
+     * composed with `CompletableFuture`.
+     *
+     * @return An executor backed by virtual threads.
+     */
+    public static Executor blockingIoExecutor() {
+        return BLOCKING_IO_EXECUTOR;
+    }
+
+    /**
+     * Returns the default number of OCI Generative AI calls a single pipeline may
+     * keep in flight.
+     *
+     * @return The configured maximum concurrency.
+     */
+    public static int maxConcurrency() {
+        return MAX_CONCURRENCY;
+    }
+
+    /**
+     * Runs a blocking task on a virtual thread. Cancelling the returned future
+     * interrupts the task.
+     *
+     * @param <T>  The result type of the task.
+     * @param task The blocking task.
+     * @return A future completed with the result of the task.
+     */
+    public static <T> CompletableFuture<T> supplyInterruptibly(Supplier<T> task) {
+        return thenApplyInterruptibly(CompletableFuture.completedFuture(null), ignored -> task.get());
+    }
+
+    /**
+     * Runs a blocking task on a virtual thread once the given stage has completed
+     * normally. Cancelling the returned future cancels the stage, or interrupts
+     * the task once it runs.
+     *
+     * @param <T>   The result type of the stage.
+     * @param <R>   The result type of the task.
+     * @param stage The stage whose result the task takes.
+     * @param task  The blocking task.
+     * @return A future completed with the result of the task, or with the error
+     *         of the stage.
+     */
+    public static <T, R> CompletableFuture<R> thenApplyInterruptibly(CompletableFuture<T> stage,
+            Function<? super T, ? extends R> task) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            Future<?> running = BLOCKING_IO_EXECUTOR.submit(() -> {
+                try {
+                    result.complete(task.apply(value));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((ignored, cancellation) -> {
+                if (result.isCancelled()) {
+                    running.cancel(true);
+                }
+            });
+        });
+        result.whenComplete((ignored, cancellation) -> {
+            if (result.isCancelled()) {
+                stage.cancel(true);
+            }
+        });
+        return result;
+    }
+}
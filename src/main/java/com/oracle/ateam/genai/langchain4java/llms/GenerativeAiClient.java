@@ -7,13 +7,17 @@
 package com.oracle.ateam.genai.langchain4java.llms;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.oracle.ateam.genai.langchain4java.llms.cache.LLMResponseCache;
 import com.oracle.bmc.ClientConfiguration;
 import com.oracle.bmc.ConfigFileReader;
 import com.oracle.bmc.Region;
@@ -64,6 +68,63 @@ public class GenerativeAiClient {
         private GenerativeAiInferenceClient generativeAiInferenceClient;
         private String compartmentId;
         private AuthenticationDetailsProvider provider ;
+        private LLMResponseCache responseCache;
+        private SharedClientResolver sharedClientResolver;
+
+        /**
+         * Resolves the shared client of a `GenerativeAiClientRegistry` that owns the
+         * inference client used by a client and its views.
+         */
+        @FunctionalInterface
+        public interface SharedClientResolver {
+                /**
+                 * Acquires the current shared client for one call, creating a new one
+                 * when the previous one was evicted.
+                 *
+                 * @return The lease of the shared, initialized `GenerativeAiClient`,
+                 *         to close when the call is over.
+                 * @throws IOException If the client cannot be initialized.
+                 */
+                Lease acquire() throws IOException;
+        }
+
+        /**
+         * A shared client held for the duration of one call. The registry closes an
+         * evicted client only once every lease on it is closed.
+         */
+        public static final class Lease implements AutoCloseable {
+                private final GenerativeAiClient client;
+                private final Runnable release;
+                private final AtomicBoolean released = new AtomicBoolean();
+
+                /**
+                 * Creates a lease.
+                 *
+                 * @param client  The leased client.
+                 * @param release The action that releases the client, run once.
+                 */
+                public Lease(GenerativeAiClient client, Runnable release) {
+                        this.client = client;
+                        this.release = release;
+                }
+
+                /**
+                 * Returns the leased client.
+                 *
+                 * @return The shared `GenerativeAiClient`.
+                 */
+                public GenerativeAiClient client() {
+                        return client;
+                }
+
+                @Override
+                public void close() {
+                        if (released.compareAndSet(false, true)) {
+                                release.run();
+                        }
+                }
+        }
+
         /**
          * Initializes the GenerativeAiRestClient by loading OCI configuration and
          * settings.
@@ -86,7 +147,47 @@ public class GenerativeAiClient {
         }
 
         /**
-         * Generates text using the Generative AI service.
+         * Creates a lightweight view of this client bound to the given model. The view
+         * shares the authentication provider and the underlying inference client, so
+         * it is cheap enough to create per request.
+         *
+         * @param modelId The identifier of the model used by the view.
+         * @return A `GenerativeAiClient` sharing this client's connection stack.
+         */
+        public GenerativeAiClient forModel(String modelId) {
+                return GenerativeAiClient.builder()
+                                .configuration(configuration)
+                                .region(region)
+                                .configLocation(configLocation)
+                                .configProfile(configProfile)
+                                .modelId(modelId)
+                                .endpoint(endpoint)
+                                .generativeAiInferenceClient(generativeAiInferenceClient)
+                                .compartmentId(compartmentId)
+                                .provider(provider)
+                                .responseCache(responseCache)
+                                .sharedClientResolver(sharedClientResolver)
+                                .build();
+        }
+
+        /**
+         * Acquires the client that owns the inference client used by the next call.
+         * A client of the registry and its views acquire it through the registry on
+         * every call, so that a client evicted by the registry is replaced for new
+         * calls and only closed once the calls in flight on it are over.
+         *
+         * @return The lease of the owning client, or of this client when it is not
+         *         shared, to close when the call is over.
+         * @throws IOException If the shared client cannot be initialized.
+         */
+        Lease sharedClient() throws IOException {
+                return sharedClientResolver != null ? sharedClientResolver.acquire() : new Lease(this, () -> {
+                });
+        }
+
+        /**
+         * Generates text using the Generative AI service. When a response cache is
+         * configured, cached responses are returned without calling the service.
          *
          * @param CohereLlmInferenceRequest The request for text generation using
          *                                  Cohere.
@@ -97,6 +198,61 @@ public class GenerativeAiClient {
          */
         public GenerateTextResponse generateText(CohereLlmInferenceRequest cohereLlmInferenceRequest)
                         throws InterruptedException, ExecutionException, IOException {
+                if (responseCache != null) {
+                        GenerateTextResponse cachedResponse = responseCache.lookup(modelId, cohereLlmInferenceRequest);
+                        if (cachedResponse != null) {
+                                log.debug("Return cached response for model {}", modelId);
+                                return cachedResponse;
+                        }
+                }
+                GenerateTextResponse generateTextResponse;
+                try (Lease lease = sharedClient()) {
+                        generateTextResponse = lease.client().getGenerativeAiInferenceClient()
+                                        .generateText(buildGenerateTextRequest(cohereLlmInferenceRequest));
+                }
+                if (responseCache != null) {
+                        responseCache.update(modelId, cohereLlmInferenceRequest, generateTextResponse);
+                }
+                return generateTextResponse;
+
+        }
+
+        /**
+         * Generates text using the Generative AI service in streaming mode. The
+         * request must have `isStream` set, and the returned stream carries the
+         * server-sent events produced by the service. The caller is responsible for
+         * closing the stream, which releases the shared client.
+         *
+         * @param cohereLlmInferenceRequest The streaming request for text generation
+         *                                  using Cohere.
+         * @return The event stream containing the generated tokens.
+         * @throws IOException if an I/O exception occurs.
+         */
+        public InputStream generateTextStream(CohereLlmInferenceRequest cohereLlmInferenceRequest)
+                        throws IOException {
+                Lease lease = sharedClient();
+                try {
+                        GenerateTextResponse generateTextResponse = lease.client().getGenerativeAiInferenceClient()
+                                        .generateText(buildGenerateTextRequest(cohereLlmInferenceRequest));
+                        return new FilterInputStream(generateTextResponse.getEventStream()) {
+                                @Override
+                                public void close() throws IOException {
+                                        try {
+                                                super.close();
+                                        } finally {
+                                                lease.close();
+                                        }
+                                }
+                        };
+                } catch (RuntimeException e) {
+                        lease.close();
+                        throw e;
+                }
+        }
+
+        // Private method to wrap an inference request with the serving mode and
+        // compartment.
+        private GenerateTextRequest buildGenerateTextRequest(CohereLlmInferenceRequest cohereLlmInferenceRequest) {
                 OnDemandServingMode servingMode = OnDemandServingMode.builder()
                                 .modelId(modelId)
                                 .build();
@@ -105,14 +261,9 @@ public class GenerativeAiClient {
                                 .compartmentId(compartmentId)
                                 .inferenceRequest(cohereLlmInferenceRequest)
                                 .build();
-                GenerateTextRequest generateTextRequest = GenerateTextRequest.builder()
+                return GenerateTextRequest.builder()
                                 .generateTextDetails(generateTextDetails)
                                 .build();
-
-                GenerateTextResponse generateTextResponse = generativeAiInferenceClient
-                                .generateText(generateTextRequest);
-                return generateTextResponse;
-
         }
 
         /**
@@ -138,9 +289,9 @@ public class GenerativeAiClient {
                                 .summarizeTextDetails(summarizeTextDetails)
                                 .build();
 
-                SummarizeTextResponse summarizeTextResponse = generativeAiInferenceClient
-                                .summarizeText(summarizeTextRequest);
-                return summarizeTextResponse;
+                try (Lease lease = sharedClient()) {
+                        return lease.client().getGenerativeAiInferenceClient().summarizeText(summarizeTextRequest);
+                }
 
         }
 
@@ -166,9 +317,9 @@ public class GenerativeAiClient {
                                 .build();
                 EmbedTextRequest embedTextRequest = EmbedTextRequest.builder().embedTextDetails(embedTextDetails)
                                 .build();
-                EmbedTextResponse embedTextResponse = generativeAiInferenceClient.embedText(embedTextRequest);
-
-                return embedTextResponse;
+                try (Lease lease = sharedClient()) {
+                        return lease.client().getGenerativeAiInferenceClient().embedText(embedTextRequest);
+                }
         }
 
         /**
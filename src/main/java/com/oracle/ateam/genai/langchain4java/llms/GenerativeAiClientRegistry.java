@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oracle.ateam.genai.langchain4java.llms.cache.CompositeResponseCache;
+import com.oracle.ateam.genai.langchain4java.llms.cache.ExactMatchResponseCache;
+import com.oracle.ateam.genai.langchain4java.llms.cache.LLMResponseCache;
+import com.oracle.ateam.genai.langchain4java.llms.cache.SemanticResponseCache;
+import com.oracle.bmc.Region;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `GenerativeAiClientRegistry` class keeps one long-lived
+ * `GenerativeAiClient` per OCI configuration so that the OCI config file, the
+ * authentication provider and the underlying `GenerativeAiInferenceClient`
+ * connection stack are created once and shared by every model wrapper.
+ *
+ * Clients are keyed by config location, profile, region, endpoint and
+ * compartment. Entries that stay idle longer than
+ * `genai.client.idle-timeout-minutes` are evicted, and all remaining clients are
+ * evicted when the JVM shuts down. A client and the views created by `forModel`
+ * acquire the shared client through the registry for every call, which keeps it
+ * from going idle while a view is in use and replaces it for new calls once it
+ * was evicted. The registry counts the calls in flight on each client and closes
+ * an evicted client only after its last call, including an open event stream,
+ * so that no call runs on a closed client. Clients share the application's
+ * exact-match response cache unless `genai.cache.exact.enabled` is false, and
+ * the semantic response cache when `genai.cache.semantic.enabled` is true.
+ *
+ * Example usage:
+ * ```java
+ * GenerativeAiClient client = GenerativeAiClientRegistry.getInstance()
+ * .getClient(configLocation, configProfile, region, endpoint, compartmentId)
+ * .forModel("cohere.command");
+ * ```
+ */
+@Slf4j
+public final class GenerativeAiClientRegistry {
+
+    private static final GenerativeAiClientRegistry INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private final Cache<ClientKey, SharedClient> clients;
+
+    private final Function<ClientKey, GenerativeAiClient> clientFactory;
+
+    private final Consumer<GenerativeAiClient> clientCloser;
+
+    private final boolean exactCacheEnabled;
+
+    private final boolean semanticCacheEnabled;
+
+    /**
+     * The identity of a shared client.
+     */
+    record ClientKey(String configLocation, String configProfile, Region region, String endpoint,
+            String compartmentId) {
+    }
+
+    /**
+     * A shared client and the number of calls in flight on it. An evicted client
+     * is closed when its last call is over.
+     */
+    private final class SharedClient {
+        private final ClientKey key;
+        private final GenerativeAiClient client;
+        private int calls;
+        private boolean evicted;
+
+        private SharedClient(ClientKey key, GenerativeAiClient client) {
+            this.key = key;
+            this.client = client;
+        }
+
+        // Returns a lease for one call, or null when the client was evicted.
+        private synchronized GenerativeAiClient.Lease tryAcquire() {
+            if (evicted) {
+                return null;
+            }
+            calls++;
+            return new GenerativeAiClient.Lease(client, this::release);
+        }
+
+        private void release() {
+            synchronized (this) {
+                if (--calls > 0 || !evicted) {
+                    return;
+                }
+            }
+            close();
+        }
+
+        private void evict(RemovalCause cause) {
+            synchronized (this) {
+                evicted = true;
+                if (calls > 0) {
+                    log.info("GenAI inference client for profile {} evicted ({}), closing it after {} calls",
+                            key.configProfile(), cause, calls);
+                    return;
+                }
+            }
+            log.info("GenAI inference client for profile {} evicted ({})", key.configProfile(), cause);
+            close();
+        }
+
+        private void close() {
+            log.info("Closing GenAI inference client for profile {}", key.configProfile());
+            clientCloser.accept(client);
+        }
+    }
+
+    /**
+     * Creates a registry that creates and closes its clients with the given
+     * functions instead of initializing them from the OCI config file.
+     *
+     * @param maxSize       The maximum number of shared clients.
+     * @param idleTimeout   The time after which an unused client is evicted.
+     * @param ticker        The time source of the idle timeout.
+     * @param clientFactory The factory of the shared clients.
+     * @param clientCloser  The action that closes an evicted client.
+     */
+    GenerativeAiClientRegistry(long maxSize, Duration idleTimeout, Ticker ticker,
+            Function<ClientKey, GenerativeAiClient> clientFactory, Consumer<GenerativeAiClient> clientCloser) {
+        this(maxSize, idleTimeout, ticker, false, false, clientFactory, clientCloser);
+    }
+
+    private GenerativeAiClientRegistry(long maxSize, Duration idleTimeout, Ticker ticker, boolean exactCacheEnabled,
+            boolean semanticCacheEnabled, Function<ClientKey, GenerativeAiClient> clientFactory,
+            Consumer<GenerativeAiClient> clientCloser) {
+        this.exactCacheEnabled = exactCacheEnabled;
+        this.semanticCacheEnabled = semanticCacheEnabled;
+        this.clientFactory = clientFactory != null ? clientFactory : this::initClient;
+        this.clientCloser = clientCloser;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                // Evictions are handled on the calling thread, so that a client is
+                // marked evicted before a new one is handed out.
+                .executor(Runnable::run)
+                .removalListener((ClientKey key, SharedClient client, RemovalCause cause) -> client.evict(cause))
+                .build();
+    }
+
+    private static GenerativeAiClientRegistry fromConfig(Config config) {
+        GenerativeAiClientRegistry registry = new GenerativeAiClientRegistry(
+                config.getOptionalValue("genai.client.max-size", Long.class).orElse(16L),
+                Duration.ofMinutes(config.getOptionalValue("genai.client.idle-timeout-minutes", Long.class)
+                        .orElse(30L)),
+                Ticker.systemTicker(),
+                config.getOptionalValue("genai.cache.exact.enabled", Boolean.class).orElse(true),
+                config.getOptionalValue("genai.cache.semantic.enabled", Boolean.class).orElse(false),
+                null, GenerativeAiClientRegistry::closeQuietly);
+        Runtime.getRuntime().addShutdownHook(new Thread(registry::close, "genai-client-registry-shutdown"));
+        return registry;
+    }
+
+    /**
+     * Returns the registry shared by the application.
+     *
+     * @return The shared `GenerativeAiClientRegistry`.
+     */
+    public static GenerativeAiClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the shared client for the given OCI configuration, creating and
+     * initializing it on first use.
+     *
+     * @param configLocation The OCI config file location.
+     * @param configProfile  The OCI config file profile name.
+     * @param region         The OCI Generative AI region.
+     * @param endpoint       The OCI Generative AI API endpoint.
+     * @param compartmentId  The OCI Generative AI compartment Id.
+     * @return The shared, initialized `GenerativeAiClient`.
+     * @throws IOException If the client cannot be initialized.
+     */
+    public GenerativeAiClient getClient(String configLocation, String configProfile, Region region,
+            String endpoint, String compartmentId) throws IOException {
+        return getSharedClient(new ClientKey(configLocation, configProfile, region, endpoint, compartmentId)).client;
+    }
+
+    private SharedClient getSharedClient(ClientKey key) throws IOException {
+        try {
+            return clients.get(key, this::createClient);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Private method to lease the current client of a key for one call, retrying
+    // when the client is evicted between its lookup and the lease.
+    private GenerativeAiClient.Lease acquire(ClientKey key) throws IOException {
+        while (true) {
+            GenerativeAiClient.Lease lease = getSharedClient(key).tryAcquire();
+            if (lease != null) {
+                return lease;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of clients currently held by the registry.
+     *
+     * @return The estimated number of shared clients.
+     */
+    public long size() {
+        return clients.estimatedSize();
+    }
+
+    /**
+     * Evicts every shared client. A client is closed at once, or after the calls
+     * in flight on it.
+     */
+    public void close() {
+        clients.invalidateAll();
+        clients.cleanUp();
+    }
+
+    // Private method to create a shared client that resolves itself, and the views
+    // created from it, through the registry on every call. The resolver is set
+    // before the response cache, whose embed model is such a view.
+    private SharedClient createClient(ClientKey key) {
+        GenerativeAiClient client = clientFactory.apply(key);
+        client.setSharedClientResolver(() -> acquire(key));
+        client.setResponseCache(responseCacheFor(client));
+        return new SharedClient(key, client);
+    }
+
+    private GenerativeAiClient initClient(ClientKey key) {
+        log.info("Creating shared GenAI inference client for profile {}", key.configProfile());
+        try {
+            return GenerativeAiClient.builder()
+                    .configLocation(key.configLocation())
+                    .configProfile(key.configProfile())
+                    .region(key.region())
+                    .endpoint(key.endpoint())
+                    .compartmentId(key.compartmentId())
+                    .build()
+                    .init();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Private method to assemble the enabled response cache layers for a client,
+    // the exact-match layer first.
+    private LLMResponseCache responseCacheFor(GenerativeAiClient client) {
+        List<LLMResponseCache> caches = new ArrayList<>();
+        String scope = ExactMatchResponseCache.scopeOf(client.getCompartmentId(),
+                client.getRegion() != null ? client.getRegion().getRegionId() : null, client.getEndpoint());
+        if (exactCacheEnabled) {
+            caches.add(ExactMatchResponseCache.getInstance().forScope(scope));
+        }
+        if (semanticCacheEnabled) {
+            SemanticResponseCache semanticCache = SemanticResponseCache.getInstance();
+            GenAICohereEmbedModel embedModel = GenAICohereEmbedModel.builder()
+                    .modeId(semanticCache.getEmbedModelId())
+                    .generativeAiClient(client.forModel(semanticCache.getEmbedModelId()))
+                    .build();
+            caches.add(semanticCache.forEmbedModel(scope, embedModel));
+        }
+        if (caches.isEmpty()) {
+            return null;
+        }
+        return caches.size() == 1 ? caches.get(0) : new CompositeResponseCache(caches);
+    }
+
+    private static void closeQuietly(GenerativeAiClient client) {
+        if (client == null || client.getGenerativeAiInferenceClient() == null) {
+            return;
+        }
+        try {
+            client.getGenerativeAiInferenceClient().close();
+        } catch (Exception e) {
+            log.warn("Failed to close GenAI inference client: {}", e.toString());
+        }
+    }
+}
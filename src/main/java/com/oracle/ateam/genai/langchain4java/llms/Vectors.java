@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import java.util.List;
+
+/**
+ * The `Vectors` class holds the vector helpers shared by the components that
+ * compare embeddings in memory.
+ *
+ * Embeddings are stored as unit-length `float[]` vectors, so that their cosine
+ * similarity is a plain dot product.
+ */
+public final class Vectors {
+
+    private Vectors() {
+    }
+
+    /**
+     * Converts an embedding into a unit-length primitive vector.
+     *
+     * @param embedding The embedding returned by the embedding model.
+     * @return The normalized vector.
+     */
+    public static float[] normalize(List<Float> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i);
+        }
+        return normalize(vector);
+    }
+
+    /**
+     * Scales a vector to unit length in place.
+     *
+     * @param vector The vector to normalize.
+     * @return The same vector, normalized.
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Returns the cosine similarity of two unit-length vectors.
+     *
+     * @param a The first vector.
+     * @param b The second vector.
+     * @return The dot product of the vectors.
+     */
+    public static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import java.util.List;
+
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
+
+/**
+ * The `CompositeResponseCache` class chains several `LLMResponseCache`
+ * layers, for example an exact-match cache in front of a semantic cache.
+ *
+ * Lookups try each layer in order and stop at the first hit, so cheaper layers
+ * should come first. Responses from the service are offered to every layer.
+ */
+public class CompositeResponseCache implements LLMResponseCache {
+
+    private final List<LLMResponseCache> caches;
+
+    /**
+     * Creates a new composite cache.
+     *
+     * @param caches The cache layers, in lookup order.
+     */
+    public CompositeResponseCache(List<LLMResponseCache> caches) {
+        this.caches = List.copyOf(caches);
+    }
+
+    @Override
+    public GenerateTextResponse lookup(String modelId, CohereLlmInferenceRequest request) {
+        for (LLMResponseCache cache : caches) {
+            GenerateTextResponse response = cache.lookup(modelId, request);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(String modelId, CohereLlmInferenceRequest request, GenerateTextResponse response) {
+        for (LLMResponseCache cache : caches) {
+            cache.update(modelId, request, response);
+        }
+    }
+}
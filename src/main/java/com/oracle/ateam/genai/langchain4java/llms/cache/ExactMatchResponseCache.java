@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceResponse;
+import com.oracle.bmc.generativeaiinference.model.GeneratedText;
+import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
+
+/**
+ * The `ExactMatchResponseCache` class caches text generation responses for
+ * requests that are identical in model, prompt and every sampling parameter.
+ *
+ * Requests are keyed by a 128-bit SHA-256 prefix of their canonical form, so a
+ * cached entry costs a few bytes of key plus the generated text. The cache is
+ * bounded by the approximate size of the cached text
+ * (`genai.cache.exact.max-weight-bytes`, W-TinyLFU eviction) and entries
+ * expire after `genai.cache.exact.ttl-minutes`. Streaming requests and, unless
+ * `genai.cache.exact.cache-nonzero-temperature` is set, requests with a
+ * temperature above zero are never cached.
+ *
+ * The cache is shared by every client of the `GenerativeAiClientRegistry`, so
+ * each client uses a view returned by `forScope` whose keys also cover its
+ * compartment, region and endpoint. A response generated under one compartment
+ * or endpoint is then never served to callers of another.
+ */
+public class ExactMatchResponseCache implements LLMResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final ExactMatchResponseCache INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private final Cache<CacheKey, GenerateTextResponse> cache;
+
+    private final boolean cacheNonZeroTemperature;
+
+    /**
+     * The compact identity of a canonicalized request.
+     */
+    record CacheKey(long high, long low) {
+    }
+
+    /**
+     * Creates a new exact-match cache.
+     *
+     * @param maxWeightBytes          The approximate maximum size of the cached
+     *                                responses, in bytes.
+     * @param ttl                     The time after which an entry expires.
+     * @param cacheNonZeroTemperature Whether requests with a temperature above
+     *                                zero may be cached.
+     */
+    public ExactMatchResponseCache(long maxWeightBytes, Duration ttl, boolean cacheNonZeroTemperature) {
+        this.cacheNonZeroTemperature = cacheNonZeroTemperature;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((CacheKey key, GenerateTextResponse response) -> weigh(response))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache shared by the application, configured from MicroProfile
+     * Config.
+     *
+     * @return The shared `ExactMatchResponseCache`.
+     */
+    public static ExactMatchResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static ExactMatchResponseCache fromConfig(Config config) {
+        long maxWeightBytes = config.getOptionalValue("genai.cache.exact.max-weight-bytes", Long.class)
+                .orElse(64L * 1024 * 1024);
+        long ttlMinutes = config.getOptionalValue("genai.cache.exact.ttl-minutes", Long.class).orElse(10L);
+        boolean cacheNonZeroTemperature = config
+                .getOptionalValue("genai.cache.exact.cache-nonzero-temperature", Boolean.class).orElse(false);
+        return new ExactMatchResponseCache(maxWeightBytes, Duration.ofMinutes(ttlMinutes), cacheNonZeroTemperature);
+    }
+
+    /**
+     * Returns the scope of the clients of a compartment, region and endpoint.
+     *
+     * @param compartmentId The OCI Generative AI compartment Id.
+     * @param regionId      The OCI Generative AI region Id.
+     * @param endpoint      The OCI Generative AI API endpoint.
+     * @return The scope to pass to `forScope`.
+     */
+    public static String scopeOf(String compartmentId, String regionId, String endpoint) {
+        return String.join("\u0000", Objects.toString(compartmentId), Objects.toString(regionId),
+                Objects.toString(endpoint));
+    }
+
+    /**
+     * Returns a view of this cache whose entries are private to the given scope.
+     *
+     * @param scope The scope of the client, see `scopeOf`.
+     * @return An `LLMResponseCache` backed by the shared cache.
+     */
+    public LLMResponseCache forScope(String scope) {
+        return new LLMResponseCache() {
+            @Override
+            public GenerateTextResponse lookup(String modelId, CohereLlmInferenceRequest request) {
+                return ExactMatchResponseCache.this.lookup(scope, modelId, request);
+            }
+
+            @Override
+            public void update(String modelId, CohereLlmInferenceRequest request, GenerateTextResponse response) {
+                ExactMatchResponseCache.this.update(scope, modelId, request, response);
+            }
+        };
+    }
+
+    @Override
+    public GenerateTextResponse lookup(String modelId, CohereLlmInferenceRequest request) {
+        return lookup("", modelId, request);
+    }
+
+    @Override
+    public void update(String modelId, CohereLlmInferenceRequest request, GenerateTextResponse response) {
+        update("", modelId, request, response);
+    }
+
+    private GenerateTextResponse lookup(String scope, String modelId, CohereLlmInferenceRequest request) {
+        if (!isCacheable(request)) {
+            return null;
+        }
+        return cache.getIfPresent(keyOf(scope, modelId, request));
+    }
+
+    private void update(String scope, String modelId, CohereLlmInferenceRequest request,
+            GenerateTextResponse response) {
+        if (isCacheable(request) && response != null && response.getGenerateTextResult() != null) {
+            cache.put(keyOf(scope, modelId, request), response);
+        }
+    }
+
+    /**
+     * Returns the hit, miss and eviction statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate memory held by the cached responses.
+     *
+     * @return The weighted size of the cache, in bytes.
+     */
+    public long weightedSize() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return The estimated number of entries.
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // Private method to check whether a request is deterministic enough to cache.
+    private boolean isCacheable(CohereLlmInferenceRequest request) {
+        if (Boolean.TRUE.equals(request.getIsStream())) {
+            return false;
+        }
+        if (cacheNonZeroTemperature) {
+            return true;
+        }
+        Double temperature = request.getTemperature();
+        return temperature != null && temperature <= 0;
+    }
+
+    // Hashes the canonical form of a request in a scope into a compact key.
+    static CacheKey keyOf(String scope, String modelId, CohereLlmInferenceRequest request) {
+        List<String> stopSequences = request.getStopSequences();
+        String canonical = String.join("\u0000",
+                Objects.toString(scope),
+                Objects.toString(modelId),
+                Objects.toString(request.getPrompt()),
+                Objects.toString(request.getTemperature()),
+                Objects.toString(request.getMaxTokens()),
+                Objects.toString(request.getTopK()),
+                Objects.toString(request.getTopP()),
+                Objects.toString(request.getFrequencyPenalty()),
+                Objects.toString(request.getPresencePenalty()),
+                stopSequences == null ? "null" : String.join("\u0001", stopSequences),
+                Objects.toString(request.getNumGenerations()),
+                Objects.toString(request.getIsEcho()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            return new CacheKey(buffer.getLong(), buffer.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Private method to approximate the memory held by a cached response.
+    private static int weigh(GenerateTextResponse response) {
+        long weight = ENTRY_OVERHEAD_BYTES;
+        if (response.getGenerateTextResult().getInferenceResponse() instanceof CohereLlmInferenceResponse cohere
+                && cohere.getGeneratedTexts() != null) {
+            for (GeneratedText generatedText : cohere.getGeneratedTexts()) {
+                if (generatedText.getText() != null) {
+                    weight += 2L * generatedText.getText().length();
+                }
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+}
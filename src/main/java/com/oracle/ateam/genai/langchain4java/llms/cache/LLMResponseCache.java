@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
+
+/**
+ * The `LLMResponseCache` interface is the extension point for caching text
+ * generation responses in front of `GenerativeAiClient.generateText`.
+ *
+ * Implementations decide which requests are cacheable. A `lookup` that returns
+ * `null` sends the request to the Generative AI service, and the response is
+ * then offered to the cache through `update`.
+ */
+public interface LLMResponseCache {
+
+    /**
+     * Looks up a cached response for the given model and inference request.
+     *
+     * @param modelId The identifier of the model serving the request.
+     * @param request The Cohere inference request.
+     * @return The cached response, or `null` on a miss.
+     */
+    GenerateTextResponse lookup(String modelId, CohereLlmInferenceRequest request);
+
+    /**
+     * Offers a response returned by the Generative AI service to the cache.
+     *
+     * @param modelId  The identifier of the model serving the request.
+     * @param request  The Cohere inference request.
+     * @param response The response returned by the service.
+     */
+    void update(String modelId, CohereLlmInferenceRequest request, GenerateTextResponse response);
+}
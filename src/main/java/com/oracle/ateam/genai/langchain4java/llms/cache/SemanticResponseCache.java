@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.oracle.ateam.genai.langchain4java.llms.GenAICohereEmbedModel;
+import com.oracle.ateam.genai.langchain4java.llms.Vectors;
+import com.oracle.ateam.genai.langchain4java.llms.cache.ExactMatchResponseCache.CacheKey;
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The `SemanticResponseCache` class returns a cached generation when a new
+ * prompt is a near-duplicate of a previously answered one.
+ *
+ * Prompts are embedded with a `GenAICohereEmbedModel` and kept in a bounded,
+ * in-process vector index of normalized `float[]` vectors. A lookup returns the
+ * response of the nearest cached prompt generated with the same model and
+ * sampling parameters when its cosine similarity reaches
+ * `genai.cache.semantic.similarity-threshold`. The index holds at most
+ * `genai.cache.semantic.max-entries` entries, replacing the oldest first, and
+ * entries expire after `genai.cache.semantic.ttl-minutes`.
+ *
+ * The index and its hit/miss statistics are shared by the application. Each
+ * client gets a view bound to its own scope and embedding model through
+ * `forEmbedModel`, and entries are only matched within the same scope, see
+ * `ExactMatchResponseCache.scopeOf`.
+ */
+@Slf4j
+public class SemanticResponseCache {
+
+    private static final SemanticResponseCache INSTANCE = fromConfig(ConfigProvider.getConfig());
+
+    private final String embedModelId;
+
+    private final double similarityThreshold;
+
+    private final long ttlNanos;
+
+    private final int maxPromptChars;
+
+    private final boolean cacheNonZeroTemperature;
+
+    private final Entry[] entries;
+
+    private int nextSlot;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Ticker ticker;
+
+    // Embeddings computed by a missed lookup, reused by the following update.
+    private final Cache<PendingKey, float[]> pendingEmbeddings = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * A cached generation and the normalized embedding of its prompt.
+     */
+    private record Entry(CacheKey scope, float[] vector, GenerateTextResponse response, long expiresAt) {
+    }
+
+    /**
+     * The prompt of a missed lookup in its scope.
+     */
+    private record PendingKey(CacheKey scope, String prompt) {
+    }
+
+    /**
+     * Creates a new semantic cache.
+     *
+     * @param embedModelId            The embedding model used for prompts.
+     * @param similarityThreshold     The minimum cosine similarity for a hit.
+     * @param maxEntries              The maximum number of cached prompts.
+     * @param ttl                     The time after which an entry expires.
+     * @param maxPromptChars          The longest prompt that is embedded.
+     * @param cacheNonZeroTemperature Whether requests with a temperature above
+     *                                zero may be cached.
+     */
+    public SemanticResponseCache(String embedModelId, double similarityThreshold, int maxEntries, Duration ttl,
+            int maxPromptChars, boolean cacheNonZeroTemperature) {
+        this(embedModelId, similarityThreshold, maxEntries, ttl, maxPromptChars, cacheNonZeroTemperature,
+                Ticker.systemTicker());
+    }
+
+    SemanticResponseCache(String embedModelId, double similarityThreshold, int maxEntries, Duration ttl,
+            int maxPromptChars, boolean cacheNonZeroTemperature, Ticker ticker) {
+        this.ticker = ticker;
+        this.embedModelId = embedModelId;
+        this.similarityThreshold = similarityThreshold;
+        this.entries = new Entry[maxEntries];
+        this.ttlNanos = ttl.toNanos();
+        this.maxPromptChars = maxPromptChars;
+        this.cacheNonZeroTemperature = cacheNonZeroTemperature;
+    }
+
+    /**
+     * Returns the cache shared by the application, configured from MicroProfile
+     * Config.
+     *
+     * @return The shared `SemanticResponseCache`.
+     */
+    public static SemanticResponseCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static SemanticResponseCache fromConfig(Config config) {
+        return new SemanticResponseCache(
+                config.getOptionalValue("genai.cache.semantic.embed-model-id", String.class)
+                        .orElse("cohere.embed-english-v3.0"),
+                config.getOptionalValue("genai.cache.semantic.similarity-threshold", Double.class).orElse(0.95),
+                config.getOptionalValue("genai.cache.semantic.max-entries", Integer.class).orElse(1024),
+                Duration.ofMinutes(config.getOptionalValue("genai.cache.semantic.ttl-minutes", Long.class)
+                        .orElse(10L)),
+                config.getOptionalValue("genai.cache.semantic.max-prompt-chars", Integer.class).orElse(2048),
+                config.getOptionalValue("genai.cache.semantic.cache-nonzero-temperature", Boolean.class)
+                        .orElse(false));
+    }
+
+    /**
+     * Returns the identifier of the embedding model used for prompts.
+     *
+     * @return The embedding model identifier.
+     */
+    public String getEmbedModelId() {
+        return embedModelId;
+    }
+
+    /**
+     * Returns a view of this cache whose entries are private to the given scope
+     * and that embeds prompts with the given model.
+     *
+     * @param scope      The scope of the client, see
+     *                   `ExactMatchResponseCache.scopeOf`.
+     * @param embedModel The embedding model used for prompts.
+     * @return An `LLMResponseCache` backed by the shared index.
+     */
+    public LLMResponseCache forEmbedModel(String scope, GenAICohereEmbedModel embedModel) {
+        return new LLMResponseCache() {
+            @Override
+            public GenerateTextResponse lookup(String modelId, CohereLlmInferenceRequest request) {
+                return SemanticResponseCache.this.lookup(embedModel, scopeOf(scope, modelId, request), request);
+            }
+
+            @Override
+            public void update(String modelId, CohereLlmInferenceRequest request, GenerateTextResponse response) {
+                SemanticResponseCache.this.update(embedModel, scopeOf(scope, modelId, request), request, response);
+            }
+        };
+    }
+
+    /**
+     * Returns the number of lookups answered from the index.
+     *
+     * @return The hit count.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no similar prompt.
+     *
+     * @return The miss count.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to lookups.
+     *
+     * @return The hit ratio, or 0 when no lookup was made.
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of prompts held by the index.
+     *
+     * @return The number of cached entries.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = 0;
+            for (Entry entry : entries) {
+                if (entry != null) {
+                    size++;
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private GenerateTextResponse lookup(GenAICohereEmbedModel embedModel, CacheKey scope,
+            CohereLlmInferenceRequest request) {
+        if (!isCacheable(request)) {
+            return null;
+        }
+        float[] vector = embed(embedModel, request.getPrompt());
+        if (vector == null) {
+            return null;
+        }
+        Entry nearest = findNearest(scope, vector);
+        if (nearest == null) {
+            pendingEmbeddings.put(new PendingKey(scope, request.getPrompt()), vector);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return nearest.response();
+    }
+
+    private void update(GenAICohereEmbedModel embedModel, CacheKey scope, CohereLlmInferenceRequest request,
+            GenerateTextResponse response) {
+        if (!isCacheable(request) || response == null || response.getGenerateTextResult() == null) {
+            return;
+        }
+        float[] vector = pendingEmbeddings.asMap().remove(new PendingKey(scope, request.getPrompt()));
+        if (vector == null) {
+            vector = embed(embedModel, request.getPrompt());
+        }
+        if (vector == null) {
+            return;
+        }
+        Entry entry = new Entry(scope, vector, response, ticker.read() + ttlNanos);
+        lock.writeLock().lock();
+        try {
+            entries[nextSlot] = entry;
+            nextSlot = (nextSlot + 1) % entries.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Private method to find the most similar live entry in the same scope.
+    private Entry findNearest(CacheKey scope, float[] vector) {
+        long now = ticker.read();
+        Entry nearest = null;
+        double bestSimilarity = similarityThreshold;
+        lock.readLock().lock();
+        try {
+            for (Entry entry : entries) {
+                if (entry == null || !entry.scope().equals(scope) || entry.expiresAt() - now < 0
+                        || entry.vector().length != vector.length) {
+                    continue;
+                }
+                double similarity = Vectors.dot(entry.vector(), vector);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    nearest = entry;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return nearest;
+    }
+
+    // Private method to check whether a request is deterministic enough to cache.
+    private boolean isCacheable(CohereLlmInferenceRequest request) {
+        if (Boolean.TRUE.equals(request.getIsStream()) || request.getPrompt() == null
+                || request.getPrompt().length() > maxPromptChars) {
+            return false;
+        }
+        if (cacheNonZeroTemperature) {
+            return true;
+        }
+        Double temperature = request.getTemperature();
+        return temperature != null && temperature <= 0;
+    }
+
+    // Private method to embed a prompt into a normalized vector, or null on
+    // failure.
+    private float[] embed(GenAICohereEmbedModel embedModel, String prompt) {
+        try {
+            return Vectors.normalize(embedModel.embedAll(List.of(prompt))[0]);
+        } catch (Exception e) {
+            log.warn("Failed to embed prompt for the semantic cache: {}", e.toString());
+            return null;
+        }
+    }
+
+    // The scope of an entry is the exact-match key of its request in the scope of
+    // the client, without the prompt.
+    private static CacheKey scopeOf(String scope, String modelId, CohereLlmInferenceRequest request) {
+        return ExactMatchResponseCache.keyOf(scope, modelId, request.toBuilder().prompt("").build());
+    }
+}
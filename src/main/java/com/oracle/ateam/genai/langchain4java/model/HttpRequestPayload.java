@@ -6,6 +6,8 @@
  ******************************************************************************/
 package com.oracle.ateam.genai.langchain4java.model;
 
+import java.util.List;
+
 import lombok.Data;
 
 /**
@@ -20,7 +22,8 @@ import lombok.Data;
  * the request, the `username` and `pwd` fields
  * store credentials for basic authentication, the `apiURL` specifies the target
  * URL for the request, and the `contentType` indicates
- * the media type of the request content.
+ * the media type of the request content. When `apiURLs` is set, the URLs are
+ * fetched concurrently and their responses are answered in a single LLM call.
  *
  * The `HttpRequestPayload` class is designed to facilitate the structuring of
  * HTTP requests, making it suitable for use in scenarios
@@ -49,6 +52,12 @@ public class HttpRequestPayload {
      */
     private String apiURL;
 
+    /**
+     * The URLs of the API endpoints fetched concurrently in fan-out mode. When
+     * set, `apiURL` is ignored.
+     */
+    private List<String> apiURLs;
+
     /**
      * The media type or content type of the request content.
      */
@@ -22,6 +22,7 @@ import org.junit.jupiter.api.Test;
 
 import com.oracle.ateam.genai.langchain4java.model.DefaultResponse;
 import com.oracle.ateam.genai.langchain4java.model.RequestChainPayload;
+import com.oracle.ateam.genai.langchain4java.model.RequestMultipleChainsPayload;
 import com.oracle.ateam.genai.langchain4java.model.RequestPayload;
 
 import com.fasterxml.jackson.core.exc.StreamReadException;
@@ -96,6 +97,19 @@ class ApiTest {
         }
     }
 
+    @Disabled("Require External API and Database.")
+    @Test
+    public void testMultiple_Chains() throws Exception {
+        var payload = asJsonString(getRequestMultipleChainsPayload("multiple_chains.json"));
+        try (Response r = target
+                .path("llm/rest/v1/chains")
+                .request()
+                .post(Entity.entity(payload, MediaType.APPLICATION_JSON))) {
+            log.info("testMultiple_Chains Response Output: " + r.readEntity(String.class));
+            assertThat(r.getStatus(), is(200));
+        }
+    }
+
     private RequestPayload getRequestPayload(String jsonFile)
             throws StreamReadException, DatabindException, IOException {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -116,6 +130,16 @@ class ApiTest {
         return requestPayload;
     }
 
+    private RequestMultipleChainsPayload getRequestMultipleChainsPayload(String jsonFile)
+            throws StreamReadException, DatabindException, IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(classLoader.getResource(jsonFile).getFile());
+        RequestMultipleChainsPayload requestPayload = objectMapper.readValue(file, RequestMultipleChainsPayload.class);
+        return requestPayload;
+    }
+
     private static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
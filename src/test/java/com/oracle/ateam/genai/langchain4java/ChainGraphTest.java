@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.oracle.ateam.genai.langchain4java.model.RequestChainPayload;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Unit test for the chain dependency graph of multiple chains requests.
+ */
+class ChainGraphTest {
+
+    @Test
+    void testIndependentChainsKeepRequestOrder() {
+        var graph = ChainGraph.of(List.of(
+                chain("Weather in {city}", "weather"),
+                chain("Orders of {customer}", "orders")));
+
+        assertThat(graph.dependenciesOf(0), is(empty()));
+        assertThat(graph.dependenciesOf(1), is(empty()));
+        assertThat(graph.topologicalOrder(), contains(0, 1));
+    }
+
+    @Test
+    void testChainRunsAfterTheChainItReferences() {
+        var graph = ChainGraph.of(List.of(
+                chain("Summarize {orders}", "summary"),
+                chain("Orders of Casey Brown", "orders")));
+
+        assertThat(graph.dependenciesOf(0), contains(1));
+        assertThat(graph.topologicalOrder(), contains(1, 0));
+    }
+
+    @Test
+    void testCircularDependencyIsRejected() {
+        var graph = ChainGraph.of(List.of(
+                chain("Use {b}", "a"),
+                chain("Use {a}", "b")));
+
+        assertThrows(BadRequestException.class, graph::topologicalOrder);
+    }
+
+    private static RequestChainPayload chain(String prompt, String outputVariable) {
+        var chain = new RequestChainPayload();
+        chain.setChainType("llm");
+        chain.setPrompt(prompt);
+        chain.setOutputVariable(outputVariable);
+        return chain;
+    }
+}
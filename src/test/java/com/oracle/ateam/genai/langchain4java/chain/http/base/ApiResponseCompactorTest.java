@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.http.base;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the compaction of the API responses of the HTTP request chain.
+ */
+class ApiResponseCompactorTest {
+
+    private static final String INVENTORY = """
+            {
+              "generatedAt": "2024-05-01T10:00:00Z",
+              "warehouses": [
+                {"city": "Frankfurt", "stock": 120, "manager": {"name": "Kim"}},
+                {"city": "Phoenix", "stock": 75, "manager": {"name": "Lee"}}
+              ],
+              "links": {"self": "/inventory"}
+            }""";
+
+    @Test
+    void testKeepsFieldsMatchingTheQuestion() {
+        var compactor = new ApiResponseCompactor(1024, 50);
+
+        assertThat(compactor.compact(INVENTORY, "How is Frankfurt doing?"),
+                is("{\"generatedAt\":\"2024-05-01T10:00:00Z\",\"warehouses\":[{\"city\":\"Frankfurt\",\"stock\":120}]}"));
+    }
+
+    @Test
+    void testKeepsEverythingWhenNothingMatches() {
+        var compactor = new ApiResponseCompactor(1024, 1);
+
+        assertThat(compactor.compact(INVENTORY, "Tell me about Tokyo"),
+                is("{\"generatedAt\":\"2024-05-01T10:00:00Z\",\"warehouses\":[{\"city\":\"Frankfurt\",\"stock\":120,"
+                        + "\"manager\":{\"name\":\"Kim\"}},\"... 1 more items\"],\"links\":{\"self\":\"/inventory\"}}"));
+    }
+
+    @Test
+    void testCutsTextAtTheTokenLimit() {
+        var compactor = new ApiResponseCompactor(2, 50);
+        String compact = compactor.compact("plain text response", "anything");
+
+        assertThat(compact, startsWith("plain te"));
+        assertThat(compact, endsWith("[response truncated]"));
+    }
+
+    @Test
+    void testTruncatedJsonIsTrimmedAsText() {
+        var compactor = new ApiResponseCompactor(1024, 50);
+
+        assertThat(compactor.compact("{\"city\": \"Frank", "Frankfurt"), is("{\"city\": \"Frank"));
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.http.base;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.oracle.ateam.genai.langchain4java.chain.http.requests.TextRequestsWrapper;
+
+/**
+ * Unit test for the fan-out of the HTTP request chain.
+ */
+class HttpRequestChainTest {
+    private static final String WEATHER = "https://api.example.com/weather";
+    private static final String TRAFFIC = "https://api.example.com/traffic";
+    private static final String EVENTS = "https://api.example.com/events";
+
+    private final FakeRequestsWrapper requestsWrapper = new FakeRequestsWrapper();
+
+    @Test
+    void testResponsesAreMergedInUrlOrder() throws Exception {
+        requestsWrapper.responses.put(WEATHER, CompletableFuture.completedFuture("Sunny"));
+        requestsWrapper.responses.put(TRAFFIC, CompletableFuture.failedFuture(new IOException("Connection reset")));
+        requestsWrapper.responses.put(EVENTS, CompletableFuture.completedFuture("Jazz festival"));
+
+        String merged = chain(Duration.ofSeconds(5)).fanOut("What is on today?").get(5, TimeUnit.SECONDS);
+
+        assertThat(merged, is("Response from " + WEATHER + ":\nSunny\n\n"
+                + "Response from " + TRAFFIC + ":\n[request failed: Connection reset]\n\n"
+                + "Response from " + EVENTS + ":\nJazz festival"));
+        assertThat(requestsWrapper.timeouts, is(List.of(Duration.ofSeconds(1), Duration.ofSeconds(1),
+                Duration.ofSeconds(1))));
+    }
+
+    @Test
+    void testDeadlineCancelsTheSlowCalls() throws Exception {
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        requestsWrapper.responses.put(WEATHER, CompletableFuture.completedFuture("Sunny"));
+        requestsWrapper.responses.put(TRAFFIC, slow);
+
+        String merged = chain(Duration.ofMillis(50)).fanOut("What is on today?").get(5, TimeUnit.SECONDS);
+
+        assertThat(merged, is("Response from " + WEATHER + ":\nSunny\n\n"
+                + "Response from " + TRAFFIC + ":\n[no response within the deadline]"));
+        assertThat(slow.isCancelled(), is(true));
+    }
+
+    @Test
+    void testCancellingTheFanOutCancelsTheCalls() {
+        CompletableFuture<String> weather = new CompletableFuture<>();
+        CompletableFuture<String> traffic = new CompletableFuture<>();
+        requestsWrapper.responses.put(WEATHER, weather);
+        requestsWrapper.responses.put(TRAFFIC, traffic);
+
+        chain(Duration.ofSeconds(30)).fanOut("What is on today?").cancel(true);
+
+        assertThat(weather.isCancelled(), is(true));
+        assertThat(traffic.isCancelled(), is(true));
+    }
+
+    private HttpRequestChain chain(Duration deadline) {
+        return new HttpRequestChain(null, requestsWrapper, List.copyOf(requestsWrapper.responses.keySet()),
+                Duration.ofSeconds(1), deadline);
+    }
+
+    private static class FakeRequestsWrapper extends TextRequestsWrapper {
+        private final Map<String, CompletableFuture<String>> responses = new LinkedHashMap<>();
+        private final List<Duration> timeouts = new ArrayList<>();
+
+        FakeRequestsWrapper() {
+            super(Map.of());
+        }
+
+        @Override
+        public CompletableFuture<String> getAsync(String url, Duration timeout) {
+            timeouts.add(timeout);
+            return responses.get(url);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.http.requests;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit test for the HTTP response cache of the shared clients.
+ */
+class HttpClientsTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private final AtomicInteger credentialKeysSent = new AtomicInteger();
+
+    private HttpServer server;
+
+    private HttpClients clients;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/etag", this::etag);
+        server.createContext("/caller", this::caller);
+        server.start();
+        clients = new HttpClients(cacheDirectory.toFile(), 1024 * 1024);
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        clients.getClient().cache().close();
+        server.stop(0);
+    }
+
+    @Test
+    void testUnchangedResourceIsRevalidated() {
+        var wrapper = wrapper(Map.of("Authorization", "Bearer token-a"));
+
+        assertThat(wrapper.get(url("/etag")), is("v1"));
+        assertThat(wrapper.get(url("/etag")), is("v1"));
+
+        assertThat(requests.get(), is(2));
+        assertThat(notModified.get(), is(1));
+        assertThat(clients.conditionalCacheHitCount(), is(1L));
+    }
+
+    @Test
+    void testResponsesAreCachedPerCredential() throws IOException {
+        var anonymous = wrapper(Map.of());
+        var alice = wrapper(Map.of("Authorization", "Bearer token-a", "Content-Type", "application/json"));
+        var bob = wrapper(Map.of("X-API-Key", "key-b"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(anonymous.get(url("/caller")), is("anonymous"));
+            assertThat(alice.get(url("/caller")), is("alice"));
+            assertThat(bob.get(url("/caller")), is("bob"));
+        }
+
+        assertThat(requests.get(), is(3));
+        assertThat(clients.cacheHitCount(), is(3L));
+        assertThat(credentialKeysSent.get(), is(0));
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String content = Files.readString(file, StandardCharsets.ISO_8859_1);
+                assertThat(content.contains("token-a") || content.contains("key-b"), is(false));
+            }
+        }
+    }
+
+    private TextRequestsWrapper wrapper(Map<String, String> headers) {
+        return new TextRequestsWrapper(new Requests(clients, headers));
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    // Serves a resource that must be revalidated before every use.
+    private void etag(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("ETag", "\"v1\"");
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, "v1");
+    }
+
+    // Serves a cacheable resource that names the caller identified by the
+    // credentials.
+    private void caller(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (exchange.getRequestHeaders().containsKey("X-GenAI-Credential-Key")) {
+            credentialKeysSent.incrementAndGet();
+        }
+        exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+        String caller = "anonymous";
+        if ("Bearer token-a".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            caller = "alice";
+        } else if ("key-b".equals(exchange.getRequestHeaders().getFirst("X-API-Key"))) {
+            caller = "bob";
+        }
+        respond(exchange, caller);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaKey;
+import com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures.StubEmbedModel;
+
+/**
+ * Unit test for the selection of the tables relevant to a question.
+ */
+class EmbeddingTableSelectorTest {
+    private static final String QUESTION = "How many orders were shipped last week?";
+
+    private static final Map<String, List<Float>> EMBEDDINGS = Map.of(
+            QUESTION, List.of(0.2f, 1f, 0.6f),
+            "CREATE TABLE EMPLOYEES (ID NUMBER, NAME VARCHAR2(100))", List.of(1f, 0f, 0f),
+            "CREATE TABLE DEPARTMENTS (ID NUMBER, NAME VARCHAR2(100))", List.of(0.9f, 0.1f, 0f),
+            "CREATE TABLE ORDERS (ID NUMBER, STATUS VARCHAR2(20))", List.of(0.1f, 1f, 0.3f),
+            "CREATE TABLE SHIPMENTS (ID NUMBER)", List.of(0.3f, 0.2f, 0.4f),
+            "CREATE TABLE SHIPMENTS (ORDER_ID NUMBER, SHIPPED_ON DATE)", List.of(0.2f, 1f, 0.6f));
+
+    private final StubEmbedModel embedModel = new StubEmbedModel(EMBEDDINGS);
+
+    @Test
+    void testMostSimilarTablesComeFirst() {
+        var database = new StubDatabase("RANKING");
+        var selector = new EmbeddingTableSelector(embedModel, 2);
+
+        assertThat(selector.selectTables(database, QUESTION), contains("ORDERS", "SHIPMENTS"));
+    }
+
+    @Test
+    void testFewTablesAreNotEmbedded() {
+        var database = new StubDatabase("FEW_TABLES");
+        var selector = new EmbeddingTableSelector(embedModel, 4);
+
+        assertThat(selector.selectTables(database, QUESTION), contains("EMPLOYEES", "DEPARTMENTS", "ORDERS",
+                "SHIPMENTS"));
+        assertThat(embedModel.calls(), is(0));
+    }
+
+    @Test
+    void testIndexIsReusedUntilTheDdlChanges() {
+        var database = new StubDatabase("DDL_CHANGE");
+        var selector = new EmbeddingTableSelector(embedModel, 1);
+
+        assertThat(selector.selectTables(database, QUESTION), contains("ORDERS"));
+        assertThat(selector.selectTables(database, QUESTION), contains("ORDERS"));
+        assertThat(embedModel.calls(), is(3));
+
+        database.ddls.put("SHIPMENTS", "CREATE TABLE SHIPMENTS (ORDER_ID NUMBER, SHIPPED_ON DATE)");
+        database.ddlFingerprint = "5@2024-06-02";
+
+        assertThat(selector.selectTables(database, QUESTION), contains("SHIPMENTS"));
+        assertThat(embedModel.calls(), is(5));
+    }
+
+    private static class StubDatabase extends OracleDatabase {
+        private final SchemaKey schemaKey;
+        private final Map<String, String> ddls = new LinkedHashMap<>();
+        private String ddlFingerprint = "4@2024-06-01";
+
+        StubDatabase(String schema) {
+            super((DataSource) null, null, null, 0, false);
+            this.schemaKey = new SchemaKey("jdbc:oracle:thin:@localhost:1521/FREEPDB1", "DEMO", schema, 0, false);
+            ddls.put("EMPLOYEES", "CREATE TABLE EMPLOYEES (ID NUMBER, NAME VARCHAR2(100))");
+            ddls.put("DEPARTMENTS", "CREATE TABLE DEPARTMENTS (ID NUMBER, NAME VARCHAR2(100))");
+            ddls.put("ORDERS", "CREATE TABLE ORDERS (ID NUMBER, STATUS VARCHAR2(20))");
+            ddls.put("SHIPMENTS", "CREATE TABLE SHIPMENTS (ID NUMBER)");
+        }
+
+        @Override
+        public List<String> getUsableTableNames() {
+            return List.copyOf(ddls.keySet());
+        }
+
+        @Override
+        public Map<String, String> getTableDdls(Collection<String> tableNames) {
+            Map<String, String> tableDdls = new HashMap<>(ddls);
+            tableDdls.keySet().retainAll(tableNames);
+            return tableDdls;
+        }
+
+        @Override
+        SchemaKey getSchemaKey() {
+            return schemaKey;
+        }
+
+        @Override
+        String getDdlFingerprint() {
+            return ddlFingerprint;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the generated-SQL cache of the Oracle database chain.
+ */
+class GeneratedSqlCacheTest {
+    private static final String SCHEMA = "SchemaKey[url=jdbc:oracle:thin:@db, username=HR]@2@2024-05-01 10:00:00.0";
+    private static final String SQL = "SELECT COUNT(*) FROM ORDERS";
+
+    @Test
+    void testNormalizedQuestionHits() {
+        var cache = new GeneratedSqlCache(16, Duration.ofMinutes(1));
+        cache.update("How many orders are there?", List.of("ORDERS"), SCHEMA, SQL);
+
+        assertThat(cache.lookup("  how many   orders are there ", List.of("orders"), SCHEMA), is(SQL));
+    }
+
+    @Test
+    void testSchemaChangeMisses() {
+        var cache = new GeneratedSqlCache(16, Duration.ofMinutes(1));
+        cache.update("How many orders are there?", List.of("ORDERS"), SCHEMA, SQL);
+
+        assertThat(cache.lookup("How many orders are there?", List.of("ORDERS"), SCHEMA.replace("@2@", "@3@")),
+                is(nullValue()));
+        assertThat(cache.lookup("How many orders are there?", null, SCHEMA), is(nullValue()));
+        assertThat(cache.lookup("How many customers are there?", List.of("ORDERS"), SCHEMA), is(nullValue()));
+    }
+
+    @Test
+    void testOnlyQueriesAreCached() {
+        var cache = new GeneratedSqlCache(16, Duration.ofMinutes(1));
+        cache.update("Delete old orders", List.of("ORDERS"), SCHEMA, "DELETE FROM ORDERS WHERE ID < 10");
+        cache.update("Recent orders", List.of("ORDERS"), SCHEMA,
+                "-- recent\nWITH R AS (SELECT * FROM ORDERS) SELECT * FROM R");
+
+        assertThat(cache.lookup("Delete old orders", List.of("ORDERS"), SCHEMA), is(nullValue()));
+        assertThat(cache.lookup("Recent orders", List.of("ORDERS"), SCHEMA), is(notNullValue()));
+        assertThat(GeneratedSqlCache.isQuery("/* q */ (select 1 from dual)"), is(true));
+        assertThat(GeneratedSqlCache.isQuery("UPDATE ORDERS SET QTY = 0"), is(false));
+    }
+
+    @Test
+    void testTableOrderDoesNotMatter() {
+        var cache = new GeneratedSqlCache(16, Duration.ofMinutes(1));
+        cache.update("Top customers", List.of("ORDERS", "CUSTOMERS"), SCHEMA, SQL);
+
+        assertThat(cache.lookup("Top customers", List.of("CUSTOMERS", "ORDERS"), SCHEMA), is(SQL));
+    }
+}
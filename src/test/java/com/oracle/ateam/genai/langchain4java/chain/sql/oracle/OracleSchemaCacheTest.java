@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaKey;
+import com.oracle.ateam.genai.langchain4java.chain.sql.oracle.OracleSchemaCache.SchemaSource;
+
+/**
+ * Unit test for the Oracle schema metadata cache.
+ */
+class OracleSchemaCacheTest {
+    private static final SchemaKey KEY = new SchemaKey("jdbc:oracle:thin:@localhost:1521/FREEPDB1", "DEMO",
+            "DEMO", 3, false);
+
+    @Test
+    void testTableInfoIsRenderedOnce() {
+        var cache = new OracleSchemaCache(Duration.ofMinutes(10), null, 16);
+        var source = new FakeSchemaSource(List.of("EMPLOYEES", "ORDERS"));
+
+        assertThat(cache.getTableNames(KEY, source), contains("EMPLOYEES", "ORDERS"));
+        assertThat(tableInfo(cache, source, "ORDERS"), is("CREATE TABLE ORDERS v1"));
+        assertThat(tableInfo(cache, source, "ORDERS"), is("CREATE TABLE ORDERS v1"));
+
+        assertThat(source.tableLoads, is(1));
+        assertThat(source.renders, contains("ORDERS"));
+    }
+
+    @Test
+    void testMissingTablesAreRenderedInOneBatch() {
+        var cache = new OracleSchemaCache(Duration.ofMinutes(10), null, 16);
+        var source = new FakeSchemaSource(List.of("EMPLOYEES", "ORDERS", "PRODUCTS"));
+
+        tableInfo(cache, source, "ORDERS");
+        var tableInfos = cache.getTableInfos(KEY, source, List.of("PRODUCTS", "ORDERS", "EMPLOYEES"));
+
+        assertThat(List.copyOf(tableInfos.keySet()), contains("PRODUCTS", "ORDERS", "EMPLOYEES"));
+        assertThat(source.batches, is(2));
+        assertThat(source.renders, contains("ORDERS", "PRODUCTS", "EMPLOYEES"));
+    }
+
+    @Test
+    void testDdlChangeReloadsSchema() {
+        var cache = new OracleSchemaCache(Duration.ofMinutes(10), Duration.ZERO, 16);
+        var source = new FakeSchemaSource(List.of("EMPLOYEES"));
+
+        assertThat(tableInfo(cache, source, "EMPLOYEES"), is("CREATE TABLE EMPLOYEES v1"));
+        assertThat(tableInfo(cache, source, "EMPLOYEES"), is("CREATE TABLE EMPLOYEES v1"));
+
+        source.tables = List.of("EMPLOYEES", "ORDERS");
+        source.version = 2;
+
+        assertThat(cache.getTableNames(KEY, source), contains("EMPLOYEES", "ORDERS"));
+        assertThat(tableInfo(cache, source, "EMPLOYEES"), is("CREATE TABLE EMPLOYEES v2"));
+        assertThat(cache.ddlInvalidationCount(), is(1L));
+    }
+
+    @Test
+    void testInvalidate() {
+        var cache = new OracleSchemaCache(Duration.ofMinutes(10), null, 16);
+        var source = new FakeSchemaSource(List.of("EMPLOYEES"));
+
+        cache.getTableNames(KEY, source);
+        cache.invalidate(KEY);
+        cache.getTableNames(KEY, source);
+
+        assertThat(source.tableLoads, is(2));
+    }
+
+    private static String tableInfo(OracleSchemaCache cache, SchemaSource source, String tableName) {
+        return cache.getTableInfos(KEY, source, List.of(tableName)).get(tableName);
+    }
+
+    private static class FakeSchemaSource implements SchemaSource {
+        private List<String> tables;
+        private int version = 1;
+        private int tableLoads;
+        private int batches;
+        private final List<String> renders = new ArrayList<>();
+
+        FakeSchemaSource(List<String> tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        public List<String> loadTableNames() {
+            tableLoads++;
+            return tables;
+        }
+
+        @Override
+        public Map<String, String> renderTableInfos(Collection<String> tableNames) {
+            batches++;
+            Map<String, String> tableInfos = new HashMap<>();
+            for (String tableName : tableNames) {
+                renders.add(tableName);
+                tableInfos.put(tableName, "CREATE TABLE " + tableName + " v" + version);
+            }
+            return tableInfos;
+        }
+
+        @Override
+        public String ddlFingerprint() {
+            return "v" + version;
+        }
+    }
+}
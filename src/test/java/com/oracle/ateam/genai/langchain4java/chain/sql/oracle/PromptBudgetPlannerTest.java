@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the token budget of the Oracle SQL prompts.
+ */
+class PromptBudgetPlannerTest {
+
+    @Test
+    void testEverythingFits() {
+        var planner = new PromptBudgetPlanner(4096, 0);
+        var plan = planner.plan("How many orders?", tableInfos(40, 40), true);
+
+        assertThat(plan.tableNames(), contains("ORDERS", "EMPLOYEES"));
+        assertThat(plan.tableInfo(), containsString("3 rows from ORDERS table"));
+        assertThat(planner.droppedTableCount(), is(0L));
+    }
+
+    @Test
+    void testSampleRowsAreDroppedBeforeTables() {
+        var tableInfos = tableInfos(400, 400);
+        int ddlTokens = PromptBudgetPlanner.estimateTokens(tableInfos.get("ORDERS").split("\n\n/\\*")[0]);
+        var planner = new PromptBudgetPlanner(2 * ddlTokens + 20, 0);
+        var plan = planner.plan("orders", tableInfos, true);
+
+        assertThat(plan.tableNames(), contains("ORDERS", "EMPLOYEES"));
+        assertThat(plan.tableInfo(), not(containsString("rows from")));
+        assertThat(plan.estimatedTokens(), lessThanOrEqualTo(planner.getMaxTokens()));
+        assertThat(planner.droppedSampleBlockCount(), is(2L));
+    }
+
+    @Test
+    void testLeastRelevantTableIsDropped() {
+        var planner = new PromptBudgetPlanner(150, 0);
+        var plan = planner.plan("List the employees", tableInfos(400, 400), false);
+
+        assertThat(plan.tableNames(), contains("EMPLOYEES"));
+        assertThat(planner.droppedTableCount(), is(1L));
+    }
+
+    @Test
+    void testMostRelevantTableIsAlwaysKept() {
+        var planner = new PromptBudgetPlanner(10, 0);
+        var plan = planner.plan("orders", tableInfos(400, 400), true);
+
+        assertThat(plan.tableNames(), contains("ORDERS"));
+    }
+
+    @Test
+    void testNoBudgetKeepsTheGivenOrder() {
+        var planner = new PromptBudgetPlanner(0, 1024);
+        var plan = planner.plan("List the employees", tableInfos(4000, 4000), false);
+
+        assertThat(plan.tableNames(), contains("ORDERS", "EMPLOYEES"));
+        assertThat(plan.tableInfo(), containsString("3 rows from EMPLOYEES table"));
+    }
+
+    @Test
+    void testEveryPlanIsPassedToTheListener() {
+        var planner = new PromptBudgetPlanner(4096, 0);
+        List<Integer> usedTokens = new ArrayList<>();
+        planner.setPlanListener(plan -> usedTokens.add(plan.estimatedTokens()));
+
+        var first = planner.plan("How many orders?", tableInfos(40, 40), true);
+        var second = planner.plan("orders", tableInfos(400, 400), true);
+
+        assertThat(usedTokens, contains(first.estimatedTokens(), second.estimatedTokens()));
+    }
+
+    private static Map<String, String> tableInfos(int ordersColumnChars, int employeesColumnChars) {
+        Map<String, String> tableInfos = new LinkedHashMap<>();
+        tableInfos.put("ORDERS", tableInfo("ORDERS", ordersColumnChars));
+        tableInfos.put("EMPLOYEES", tableInfo("EMPLOYEES", employeesColumnChars));
+        return tableInfos;
+    }
+
+    private static String tableInfo(String tableName, int columnChars) {
+        return "\nCREATE TABLE " + tableName + " (\n\tID NUMBER,\n\tNOTE VARCHAR2(" + columnChars + ") COMMENT '"
+                + "x".repeat(columnChars) + "'\n)\n\n/*\n3 rows from " + tableName + " table:\nID\tNOTE\n"
+                + "1\t" + "y".repeat(columnChars) + "\n*/";
+    }
+}
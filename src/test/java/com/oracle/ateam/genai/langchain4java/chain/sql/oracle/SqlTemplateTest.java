@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.chain.sql.oracle;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the SQL command templates of the Oracle database chain.
+ */
+class SqlTemplateTest {
+
+    @Test
+    void testUnquotedPlaceholders() {
+        var template = SqlTemplate.parse("SELECT * FROM ORDERS WHERE ID = {id} AND QTY > {qty}", Set.of("id", "qty"));
+
+        assertThat(template.getSql(), is("SELECT * FROM ORDERS WHERE ID = ? AND QTY > ?"));
+        assertThat(template.getBindNames(), contains("id", "qty"));
+        assertThat(template.bindValues(Map.of("id", 7, "qty", 2)), contains(7, 2));
+    }
+
+    @Test
+    void testQuotedPlaceholder() {
+        var template = SqlTemplate.parse("SELECT * FROM EMP WHERE FIRST_NAME = '{FirstName}' AND LAST_NAME = '{LastName}'",
+                Set.of("FirstName", "LastName"));
+
+        assertThat(template.getSql(), is("SELECT * FROM EMP WHERE FIRST_NAME = ? AND LAST_NAME = ?"));
+        assertThat(template.bindValues(Map.of("FirstName", "Casey", "LastName", "O'Brown")),
+                contains("Casey", "O'Brown"));
+    }
+
+    @Test
+    void testPlaceholderInsideLiteral() {
+        var template = SqlTemplate.parse("SELECT * FROM EMP WHERE ENAME LIKE '%{name}%'", Set.of("name"));
+
+        assertThat(template.getSql(), is("SELECT * FROM EMP WHERE ENAME LIKE '%' || ? || '%'"));
+    }
+
+    @Test
+    void testUnknownPlaceholdersAndEscapedQuotesAreKept() {
+        var template = SqlTemplate.parse("SELECT '{other}', 'it''s' FROM DUAL WHERE X = {x}", Set.of("x"));
+
+        assertThat(template.getSql(), is("SELECT '{other}', 'it''s' FROM DUAL WHERE X = ?"));
+        assertThat(template.getBindNames(), contains("x"));
+    }
+
+    @Test
+    void testIdentifierPlaceholdersAreSubstituted() {
+        var template = SqlTemplate.parse("SELECT {col}, E.ENAME FROM {table} E WHERE E.{key} = {id}"
+                + " ORDER BY {col} {direction} FETCH FIRST {n} ROWS ONLY", Set.of("col", "table", "key", "id",
+                        "direction", "n"));
+
+        assertThat(template.getBindNames(), contains("id"));
+        assertThat(template.sql(Map.of("col", "SAL", "table", "HR.EMP", "key", "EMPNO", "id", 7, "direction",
+                "DESC", "n", 5)), is("SELECT SAL, E.ENAME FROM HR.EMP E WHERE E.EMPNO = ?"
+                        + " ORDER BY SAL DESC FETCH FIRST 5 ROWS ONLY"));
+    }
+
+    @Test
+    void testColumnPlaceholderInConditionIsSubstituted() {
+        var template = SqlTemplate.parse("SELECT * FROM EMP WHERE {col} = {value}", Set.of("col", "value"));
+
+        assertThat(template.getInlinedNames(), contains("col"));
+        assertThat(template.sql(Map.of("col", "ENAME", "value", "KING")), is("SELECT * FROM EMP WHERE ENAME = ?"));
+        assertThat(template.bindValues(Map.of("col", "ENAME", "value", "KING")), contains("KING"));
+    }
+
+    @Test
+    void testIdentifierPlaceholderRejectsOtherValues() {
+        var template = SqlTemplate.parse("SELECT * FROM {table} FETCH FIRST {n} ROWS ONLY", Set.of("table", "n"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> template.sql(Map.of("table", "EMP; DROP TABLE EMP", "n", 5)));
+        assertThrows(IllegalArgumentException.class, () -> template.sql(Map.of("table", "EMP", "n", "5 OR 1=1")));
+    }
+
+    @Test
+    void testPlaceholdersInCommentsAreKept() {
+        var template = SqlTemplate.parse("SELECT * FROM {table} -- filter on {id}\n"
+                + "WHERE ID = {id} /* was {table}.ID = {id} */", Set.of("table", "id"));
+
+        assertThat(template.getBindNames(), contains("id"));
+        assertThat(template.sql(Map.of("table", "EMP", "id", 7)),
+                is("SELECT * FROM EMP -- filter on {id}\nWHERE ID = ? /* was {table}.ID = {id} */"));
+    }
+
+    @Test
+    void testPlaceholdersInQuotedIdentifiersAreKept() {
+        var template = SqlTemplate.parse("SELECT \"{col}\", {col} FROM \"{table}\" WHERE X = {x}",
+                Set.of("col", "table", "x"));
+
+        assertThat(template.getBindNames(), contains("x"));
+        assertThat(template.getInlinedNames(), contains("col"));
+        assertThat(template.sql(Map.of("col", "SAL", "table", "EMP", "x", 1)),
+                is("SELECT \"{col}\", SAL FROM \"{table}\" WHERE X = ?"));
+    }
+
+    @Test
+    void testOnlyTrailingTerminatorIsStripped() {
+        assertThat(SqlTemplate.stripTerminator("SELECT 'a;b' FROM DUAL; \n"), is("SELECT 'a;b' FROM DUAL"));
+        assertThat(SqlTemplate.stripTerminator("SELECT ';' FROM DUAL"), is("SELECT ';' FROM DUAL"));
+    }
+
+    @Test
+    void testNoPlaceholders() {
+        var template = SqlTemplate.parse("SELECT * FROM EMP", Set.of("name"));
+
+        assertThat(template.getSql(), is("SELECT * FROM EMP"));
+        assertThat(template.getBindNames(), is(empty()));
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the batched embedding of texts.
+ */
+class GenAICohereEmbedBaseTest {
+
+    @Test
+    void testVectorsAreInInputOrder() throws Exception {
+        var model = new FakeEmbedModel(3, 4, 0);
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            texts.add(String.valueOf(i));
+        }
+
+        float[][] vectors = model.embedAll(texts);
+
+        assertThat(vectors.length, is(10));
+        for (int i = 0; i < vectors.length; i++) {
+            assertThat(vectors[i][0], is((float) i));
+        }
+        assertThat(model.calls.get(), is(4));
+    }
+
+    @Test
+    void testFailedBatchIsRetried() throws Exception {
+        var model = new FakeEmbedModel(2, 2, 1);
+
+        float[][] vectors = model.embedAll(List.of("0", "1", "2"));
+
+        assertThat(vectors[2][0], is(2f));
+        assertThat(model.calls.get(), is(3));
+    }
+
+    @Test
+    void testErrorAfterRetries() {
+        var model = new FakeEmbedModel(2, 2, 10);
+
+        assertThrows(IOException.class, () -> model.embedAll(List.of("0", "1", "2")));
+    }
+
+    private static class FakeEmbedModel extends GenAICohereEmbedBase {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures;
+
+        FakeEmbedModel(int batchSize, int maxConcurrency, int failures) {
+            super(GenAICohereEmbedBase.builder().batchSize(batchSize).maxConcurrency(maxConcurrency).maxRetries(2));
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        protected List<List<Float>> embedBatch(List<String> inputs) throws IOException {
+            calls.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new IOException("Service unavailable");
+            }
+            return inputs.stream().map(input -> List.of(Float.parseFloat(input), 1f)).toList();
+        }
+    }
+}
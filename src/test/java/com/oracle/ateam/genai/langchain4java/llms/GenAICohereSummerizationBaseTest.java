@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the chunking of the map-reduce summarization.
+ */
+class GenAICohereSummerizationBaseTest {
+
+    @Test
+    void testParagraphsArePackedIntoChunks() {
+        var chunks = GenAICohereSummerizationBase.splitIntoChunks("First part.\n\nSecond part.\n\nThird part.", 26);
+
+        assertThat(chunks, contains("First part.\n\nSecond part.", "Third part."));
+    }
+
+    @Test
+    void testLongParagraphIsSplitAtSentences() {
+        var chunks = GenAICohereSummerizationBase.splitIntoChunks("One sentence. Another sentence. A third one.", 20);
+
+        assertThat(chunks, contains("One sentence.", "Another sentence.", "A third one."));
+    }
+
+    @Test
+    void testLongSentenceIsCut() {
+        List<String> chunks = GenAICohereSummerizationBase.splitIntoChunks("x".repeat(25), 10);
+
+        assertThat(chunks, hasSize(3));
+        assertThat(chunks.stream().map(String::length).toList(), everyItem(lessThanOrEqualTo(10)));
+        assertThat(String.join("", chunks), is("x".repeat(25)));
+    }
+
+    @Test
+    void testNoContentIsDroppedWhenSummariesDoNotShrink() throws Exception {
+        var summarizer = new EchoSummarizer();
+        String text = IntStream.range(0, 30).mapToObj(i -> "Paragraph " + i + " is here.")
+                .collect(Collectors.joining("\n\n"));
+
+        assertThat(summarizer.summerize(text), is(text));
+        assertThat(summarizer.largestInput.get(), is(text.length()));
+    }
+
+    // Returns every text unchanged, like a model whose summaries do not shrink.
+    private static class EchoSummarizer extends GenAICohereSummerizationBase {
+        private final AtomicInteger largestInput = new AtomicInteger();
+
+        EchoSummarizer() {
+            super(GenAICohereSummerizationBase.builder().chunkTokens(10).batchSize(4));
+        }
+
+        @Override
+        protected String summarizeOnce(String text) {
+            largestInput.accumulateAndGet(text.length(), Math::max);
+            return text;
+        }
+    }
+}
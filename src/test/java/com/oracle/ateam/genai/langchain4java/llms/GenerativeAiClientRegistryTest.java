@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the sharing and eviction of the clients of the registry.
+ */
+class GenerativeAiClientRegistryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final List<GenerativeAiClient> closed = new CopyOnWriteArrayList<>();
+
+    private final GenerativeAiClientRegistry registry = new GenerativeAiClientRegistry(16, Duration.ofMinutes(30),
+            nanos::get, key -> {
+                created.incrementAndGet();
+                return GenerativeAiClient.builder().configProfile(key.configProfile()).build();
+            }, closed::add);
+
+    @Test
+    void testViewsShareTheClient() throws Exception {
+        GenerativeAiClient client = registry.getClient("config", "DEFAULT", null, "endpoint", "compartment");
+
+        assertThat(registry.getClient("config", "DEFAULT", null, "endpoint", "compartment"), sameInstance(client));
+        assertThat(leasedClient(client.forModel("cohere.command")), sameInstance(client));
+        assertThat(created.get(), is(1));
+    }
+
+    @Test
+    void testViewInUseKeepsTheClient() throws Exception {
+        GenerativeAiClient client = registry.getClient("config", "DEFAULT", null, "endpoint", "compartment");
+        GenerativeAiClient view = client.forModel("cohere.command");
+
+        for (int i = 0; i < 3; i++) {
+            advance(Duration.ofMinutes(20));
+            assertThat(leasedClient(view), sameInstance(client));
+        }
+        assertThat(created.get(), is(1));
+    }
+
+    @Test
+    void testViewResolvesANewClientAfterEviction() throws Exception {
+        GenerativeAiClient client = registry.getClient("config", "DEFAULT", null, "endpoint", "compartment");
+        GenerativeAiClient view = client.forModel("cohere.command");
+
+        advance(Duration.ofMinutes(31));
+        GenerativeAiClient resolved = leasedClient(view);
+
+        assertThat(resolved, not(sameInstance(client)));
+        assertThat(created.get(), is(2));
+        assertThat(leasedClient(view), sameInstance(resolved));
+        assertThat(leasedClient(client), sameInstance(resolved));
+        assertThat(closed, contains(sameInstance(client)));
+    }
+
+    @Test
+    void testEvictedClientIsClosedAfterTheCallInFlight() throws Exception {
+        GenerativeAiClient client = registry.getClient("config", "DEFAULT", null, "endpoint", "compartment");
+        GenerativeAiClient view = client.forModel("cohere.command");
+
+        try (GenerativeAiClient.Lease call = view.sharedClient()) {
+            advance(Duration.ofMinutes(31));
+            GenerativeAiClient resolved = leasedClient(view);
+
+            assertThat(resolved, not(sameInstance(client)));
+            assertThat(call.client(), sameInstance(client));
+            assertThat(closed, is(empty()));
+        }
+        assertThat(closed, contains(sameInstance(client)));
+    }
+
+    @Test
+    void testCloseEvictsEveryClient() throws Exception {
+        registry.getClient("config", "DEFAULT", null, "endpoint", "compartment");
+        registry.getClient("config", "OTHER", null, "endpoint", "compartment");
+
+        registry.close();
+
+        assertThat(registry.size(), is(0L));
+        assertThat(closed.size(), is(2));
+    }
+
+    private static GenerativeAiClient leasedClient(GenerativeAiClient client) throws Exception {
+        try (GenerativeAiClient.Lease lease = client.sharedClient()) {
+            return lease.client();
+        }
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
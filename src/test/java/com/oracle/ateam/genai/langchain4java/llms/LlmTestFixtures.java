@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceResponse;
+import com.oracle.bmc.generativeaiinference.model.GenerateTextResult;
+import com.oracle.bmc.generativeaiinference.model.GeneratedText;
+import com.oracle.bmc.generativeaiinference.responses.GenerateTextResponse;
+
+/**
+ * The requests, responses and embedding model shared by the unit tests of the
+ * LLM caches and the components built on embeddings.
+ */
+public final class LlmTestFixtures {
+
+    private LlmTestFixtures() {
+    }
+
+    /**
+     * Returns a text generation request.
+     *
+     * @param prompt      The prompt of the request.
+     * @param temperature The sampling temperature.
+     * @return The request.
+     */
+    public static CohereLlmInferenceRequest request(String prompt, Double temperature) {
+        return CohereLlmInferenceRequest.builder()
+                .prompt(prompt)
+                .temperature(temperature)
+                .maxTokens(300)
+                .isStream(false)
+                .build();
+    }
+
+    /**
+     * Returns a text generation response with a single generated text.
+     *
+     * @param text The generated text.
+     * @return The response.
+     */
+    public static GenerateTextResponse response(String text) {
+        var inferenceResponse = CohereLlmInferenceResponse.builder()
+                .generatedTexts(List.of(GeneratedText.builder().text(text).build()))
+                .build();
+        return GenerateTextResponse.builder()
+                .generateTextResult(GenerateTextResult.builder().inferenceResponse(inferenceResponse).build())
+                .build();
+    }
+
+    /**
+     * An embedding model that returns fixed embeddings instead of calling the
+     * service, and counts its batch calls.
+     */
+    public static class StubEmbedModel extends GenAICohereEmbedModel {
+        private final Map<String, List<Float>> embeddings;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        /**
+         * Creates a stub returning the given embedding of each text.
+         *
+         * @param embeddings The embeddings by text.
+         */
+        public StubEmbedModel(Map<String, List<Float>> embeddings) {
+            super(GenAICohereEmbedModel.builder().batchSize(96).maxConcurrency(1).maxRetries(0));
+            this.embeddings = embeddings;
+        }
+
+        /**
+         * Returns the number of batches embedded.
+         *
+         * @return The number of batch calls.
+         */
+        public int calls() {
+            return calls.get();
+        }
+
+        @Override
+        protected List<List<Float>> embedBatch(List<String> inputs) {
+            calls.incrementAndGet();
+            return inputs.stream().map(embeddings::get).toList();
+        }
+    }
+}
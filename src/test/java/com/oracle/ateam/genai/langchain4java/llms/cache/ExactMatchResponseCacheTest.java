@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import static com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures.request;
+import static com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures.response;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for the exact-match LLM response cache.
+ */
+class ExactMatchResponseCacheTest {
+    private static final String MODEL_ID = "cohere.command";
+
+    @Test
+    void testHitForDeterministicRequest() {
+        var cache = new ExactMatchResponseCache(1024 * 1024, Duration.ofMinutes(1), false);
+        var response = response("Oracle Cloud Infrastructure");
+
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(nullValue()));
+        cache.update(MODEL_ID, request("Tell me about OCI", 0.0), response);
+
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(sameInstance(response)));
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about Oracle", 0.0)), is(nullValue()));
+        assertThat(cache.lookup("cohere.command-light", request("Tell me about OCI", 0.0)), is(nullValue()));
+    }
+
+    @Test
+    void testNonZeroTemperatureIsNotCachedByDefault() {
+        var cache = new ExactMatchResponseCache(1024 * 1024, Duration.ofMinutes(1), false);
+        cache.update(MODEL_ID, request("Tell me about OCI", 0.75), response("OCI"));
+
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about OCI", 0.75)), is(nullValue()));
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    void testNonZeroTemperatureIsCachedWhenOptedIn() {
+        var cache = new ExactMatchResponseCache(1024 * 1024, Duration.ofMinutes(1), true);
+        cache.update(MODEL_ID, request("Tell me about OCI", 0.75), response("OCI"));
+
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about OCI", 0.75)), is(not(nullValue())));
+    }
+
+    @Test
+    void testKeyDependsOnSamplingParameters() {
+        var key = ExactMatchResponseCache.keyOf("", MODEL_ID, request("Tell me about OCI", 0.0));
+        var otherTemperature = ExactMatchResponseCache.keyOf("", MODEL_ID, request("Tell me about OCI", 0.1));
+
+        assertThat(key, is(ExactMatchResponseCache.keyOf("", MODEL_ID, request("Tell me about OCI", 0.0))));
+        assertThat(key, is(not(otherTemperature)));
+    }
+
+    @Test
+    void testScopesDoNotShareResponses() {
+        var cache = new ExactMatchResponseCache(1024 * 1024, Duration.ofMinutes(1), false);
+        var frankfurt = cache.forScope(ExactMatchResponseCache.scopeOf("compartment-a", "eu-frankfurt-1",
+                "https://inference.generativeai.eu-frankfurt-1.oci.oraclecloud.com"));
+        var otherCompartment = cache.forScope(ExactMatchResponseCache.scopeOf("compartment-b", "eu-frankfurt-1",
+                "https://inference.generativeai.eu-frankfurt-1.oci.oraclecloud.com"));
+        var otherRegion = cache.forScope(ExactMatchResponseCache.scopeOf("compartment-a", "us-chicago-1",
+                "https://inference.generativeai.us-chicago-1.oci.oraclecloud.com"));
+        var response = response("OCI");
+
+        frankfurt.update(MODEL_ID, request("Tell me about OCI", 0.0), response);
+
+        assertThat(frankfurt.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(sameInstance(response)));
+        assertThat(otherCompartment.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(nullValue()));
+        assertThat(otherRegion.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(nullValue()));
+        assertThat(cache.lookup(MODEL_ID, request("Tell me about OCI", 0.0)), is(nullValue()));
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Oracle OCI Generative AI LangChain For Java version 1.0.
+ *
+ * Copyright (c)  2024,  Oracle and/or its affiliates.
+ * Licensed under the Universal Permissive License v 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ ******************************************************************************/
+package com.oracle.ateam.genai.langchain4java.llms.cache;
+
+import static com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures.response;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures;
+import com.oracle.ateam.genai.langchain4java.llms.LlmTestFixtures.StubEmbedModel;
+import com.oracle.bmc.generativeaiinference.model.CohereLlmInferenceRequest;
+
+/**
+ * Unit test for the semantic LLM response cache.
+ */
+class SemanticResponseCacheTest {
+    private static final String MODEL_ID = "cohere.command";
+
+    private static final String SCOPE = ExactMatchResponseCache.scopeOf("compartment-a", "eu-frankfurt-1",
+            "https://inference.generativeai.eu-frankfurt-1.oci.oraclecloud.com");
+
+    private static final Map<String, List<Float>> EMBEDDINGS = Map.of(
+            "What is OCI?", List.of(1f, 0f, 0f),
+            "What's OCI?", List.of(0.99f, 0.14f, 0f),
+            "What is Oracle Database?", List.of(0f, 1f, 0f),
+            "Who founded Oracle?", List.of(0f, 0f, 1f),
+            "Where is Oracle based?", List.of(0.6f, 0.8f, 0f));
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final StubEmbedModel embedModel = new StubEmbedModel(EMBEDDINGS);
+
+    @Test
+    void testNearDuplicatePromptHits() {
+        var cache = cache(16).forEmbedModel(SCOPE, embedModel);
+        var response = response("Oracle Cloud Infrastructure");
+
+        assertThat(cache.lookup(MODEL_ID, request("What is OCI?")), is(nullValue()));
+        cache.update(MODEL_ID, request("What is OCI?"), response);
+
+        assertThat(cache.lookup(MODEL_ID, request("What's OCI?")), is(sameInstance(response)));
+    }
+
+    @Test
+    void testPromptBelowThresholdMisses() {
+        var cache = cache(16).forEmbedModel(SCOPE, embedModel);
+        cache.update(MODEL_ID, request("What is OCI?"), response("OCI"));
+
+        assertThat(cache.lookup(MODEL_ID, request("Where is Oracle based?")), is(nullValue()));
+        assertThat(cache.lookup(MODEL_ID, request("What is Oracle Database?")), is(nullValue()));
+    }
+
+    @Test
+    void testMissedLookupHandsItsEmbeddingToTheUpdate() {
+        var semanticCache = cache(16);
+        var cache = semanticCache.forEmbedModel(SCOPE, embedModel);
+
+        cache.lookup(MODEL_ID, request("What is OCI?"));
+        cache.update(MODEL_ID, request("What is OCI?"), response("OCI"));
+
+        assertThat(embedModel.calls(), is(1));
+        assertThat(semanticCache.size(), is(1));
+        assertThat(semanticCache.missCount(), is(1L));
+    }
+
+    @Test
+    void testScopesAndParametersAreSeparated() {
+        var semanticCache = cache(16);
+        var cache = semanticCache.forEmbedModel(SCOPE, embedModel);
+        var otherCompartment = semanticCache.forEmbedModel(ExactMatchResponseCache.scopeOf("compartment-b",
+                "eu-frankfurt-1", "https://inference.generativeai.eu-frankfurt-1.oci.oraclecloud.com"), embedModel);
+        cache.update(MODEL_ID, request("What is OCI?"), response("OCI"));
+
+        assertThat(otherCompartment.lookup(MODEL_ID, request("What is OCI?")), is(nullValue()));
+        assertThat(cache.lookup("cohere.command-light", request("What is OCI?")), is(nullValue()));
+        assertThat(cache.lookup(MODEL_ID, request("What is OCI?").toBuilder().maxTokens(50).build()),
+                is(nullValue()));
+        assertThat(semanticCache.hitCount(), is(0L));
+    }
+
+    @Test
+    void testExpiredEntryIsSkipped() {
+        var cache = cache(16).forEmbedModel(SCOPE, embedModel);
+        cache.update(MODEL_ID, request("What is OCI?"), response("OCI"));
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertThat(cache.lookup(MODEL_ID, request("What is OCI?")), is(nullValue()));
+    }
+
+    @Test
+    void testOldestEntryIsReplacedWhenFull() {
+        var semanticCache = cache(2);
+        var cache = semanticCache.forEmbedModel(SCOPE, embedModel);
+        var database = response("Oracle Database");
+        var founders = response("Larry Ellison, Bob Miner and Ed Oates");
+
+        cache.update(MODEL_ID, request("What is OCI?"), response("OCI"));
+        cache.update(MODEL_ID, request("What is Oracle Database?"), database);
+        cache.update(MODEL_ID, request("Who founded Oracle?"), founders);
+
+        assertThat(semanticCache.size(), is(2));
+        assertThat(cache.lookup(MODEL_ID, request("What is OCI?")), is(nullValue()));
+        assertThat(cache.lookup(MODEL_ID, request("What is Oracle Database?")), is(sameInstance(database)));
+        assertThat(cache.lookup(MODEL_ID, request("Who founded Oracle?")), is(sameInstance(founders)));
+    }
+
+    @Test
+    void testNonZeroTemperatureIsNotEmbedded() {
+        var cache = cache(16).forEmbedModel(SCOPE, embedModel);
+
+        assertThat(cache.lookup(MODEL_ID, request("What is OCI?").toBuilder().temperature(0.75).build()),
+                is(nullValue()));
+        assertThat(embedModel.calls(), is(0));
+    }
+
+    private SemanticResponseCache cache(int maxEntries) {
+        return new SemanticResponseCache("cohere.embed-english-v3.0", 0.95, maxEntries, Duration.ofMinutes(10),
+                2048, false, nanos::get);
+    }
+
+    private static CohereLlmInferenceRequest request(String prompt) {
+        return LlmTestFixtures.request(prompt, 0.0);
+    }
+}